@@ -0,0 +1,131 @@
+package com.habittracker.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+
+/**
+ * Small in-process cache bounded by size (least recently used entries are evicted first)
+ * and by time-to-live. Invalidations bump a per-key stamp so that a value loaded before
+ * a concurrent write is never stored over the invalidation.
+ */
+public class TtlCache<K, V> {
+    
+    private static final int STAMP_STRIPES = 64;
+    
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    public TtlCache(String name, int maxSize, Duration ttl) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+    
+    /**
+     * Returns the cached value if present, not expired and accepted by the validity check.
+     * Rejected values are dropped and counted as misses.
+     */
+    public V get(K key, Predicate<V> isValid) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (System.nanoTime() - entry.createdAt > ttlNanos) {
+                entries.remove(key);
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            if (!isValid.test(entry.value)) {
+                entries.remove(key);
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.value;
+        }
+    }
+    
+    /**
+     * Stamp to take before loading a value; pass it to {@link #putIfNotInvalidated}.
+     */
+    public long stamp(K key) {
+        return stamps.get(stripe(key));
+    }
+    
+    /**
+     * Stores the value unless the key was invalidated after the given stamp was taken.
+     */
+    public void putIfNotInvalidated(K key, V value, long stamp) {
+        synchronized (entries) {
+            if (stamps.get(stripe(key)) != stamp) {
+                return;
+            }
+            entries.put(key, new Entry<>(value, System.nanoTime()));
+            if (entries.size() > maxSize) {
+                Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+    
+    public void invalidate(K key) {
+        synchronized (entries) {
+            stamps.incrementAndGet(stripe(key));
+            entries.remove(key);
+            invalidations.incrementAndGet();
+        }
+    }
+    
+    public void invalidateAll() {
+        synchronized (entries) {
+            for (int i = 0; i < STAMP_STRIPES; i++) {
+                stamps.incrementAndGet(i);
+            }
+            entries.clear();
+            invalidations.incrementAndGet();
+        }
+    }
+    
+    public CacheStats getStats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(name, size, maxSize, hits.get(), misses.get(),
+                evictions.get(), expirations.get(), invalidations.get());
+    }
+    
+    private int stripe(K key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % STAMP_STRIPES;
+    }
+    
+    private static class Entry<V> {
+        private final V value;
+        private final long createdAt;
+        
+        Entry(V value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+}
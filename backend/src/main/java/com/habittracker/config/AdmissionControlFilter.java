@@ -0,0 +1,60 @@
+package com.habittracker.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of API requests in flight. With virtual threads Tomcat no longer limits concurrency
+ * through its worker pool, so without this every request would queue on the Hikari pool and time out
+ * there; instead excess requests wait briefly here and are then rejected with 503.
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    
+    private final Semaphore permits;
+    private final long admissionTimeoutMillis;
+    
+    public AdmissionControlFilter(@Value("${habittracker.web.max-concurrent-requests:200}") int maxConcurrentRequests,
+                                  @Value("${habittracker.web.admission-timeout-ms:1000}") long admissionTimeoutMillis) {
+        this.permits = maxConcurrentRequests > 0 ? new Semaphore(maxConcurrentRequests) : null;
+        this.admissionTimeoutMillis = admissionTimeoutMillis;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return permits == null || !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(admissionTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is at capacity");
+            return;
+        }
+        
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
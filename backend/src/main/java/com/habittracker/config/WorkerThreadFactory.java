@@ -0,0 +1,37 @@
+package com.habittracker.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factory for the backend's own worker pools. Creates virtual threads when
+ * spring.threads.virtual.enabled is set and the JVM supports them (Java 21+), daemon platform threads otherwise.
+ */
+@Component
+public class WorkerThreadFactory {
+    
+    @Autowired
+    private Environment environment;
+    
+    public boolean isVirtual() {
+        return Threading.VIRTUAL.isActive(environment);
+    }
+    
+    public ThreadFactory create(String namePrefix) {
+        if (isVirtual()) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
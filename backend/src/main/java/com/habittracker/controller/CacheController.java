@@ -0,0 +1,23 @@
+package com.habittracker.controller;
+
+import com.habittracker.cache.CacheStats;
+import com.habittracker.service.HabitService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class CacheController {
+    
+    @Autowired
+    private HabitService habitService;
+    
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStats>> getCacheStats() {
+        return ResponseEntity.ok(List.of(habitService.getDashboardCacheStats()));
+    }
+}
@@ -1,55 +1,84 @@
 package com.habittracker.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.habittracker.dto.CreateHabitRequest;
 import com.habittracker.dto.HabitResponse;
+import com.habittracker.dto.HabitLogView;
+import com.habittracker.dto.HabitStatsResponse;
+import com.habittracker.dto.HabitView;
+import com.habittracker.dto.HeatmapResponse;
+import com.habittracker.dto.LogSyncRequest;
+import com.habittracker.dto.LogSyncResult;
+import com.habittracker.dto.VersionedDashboard;
 import com.habittracker.entity.Habit;
+import com.habittracker.entity.HabitCompletionRollup.Granularity;
 import com.habittracker.entity.HabitLog;
+import com.habittracker.event.HabitEventBroadcaster;
 import com.habittracker.service.HabitService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/habits")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
 public class HabitController {
     
+    private static final int MAX_HEATMAP_YEARS = 5;
+    private static final int DEFAULT_LOG_PAGE_SIZE = 100;
+    private static final int MAX_LOG_PAGE_SIZE = 1000;
+    private static final int MAX_STATS_PERIODS = 260;
+    private static final String NEXT_BEFORE_HEADER = "X-Next-Before";
+    private static final String NDJSON = "application/x-ndjson";
+    
     @Autowired
     private HabitService habitService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private HabitEventBroadcaster habitEventBroadcaster;
+    
     @GetMapping("/{userId}")
-    public ResponseEntity<List<HabitResponse>> getHabitsByUserId(@PathVariable Long userId) {
-        // Update all habits to ensure fresh streak and progress data
-        habitService.updateAllHabitsForUser(userId);
+    public ResponseEntity<List<HabitResponse>> getHabitsByUserId(@PathVariable Long userId, WebRequest request) {
+        // Conditional GET: an unchanged dashboard is answered with 304 from the cache or one aggregate query
+        String etag = habitService.getDashboardVersion(userId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         
-        List<Habit> habits = habitService.getAllHabitsByUserId(userId);
-        List<HabitResponse> habitResponses = habits.stream()
-                .map(habit -> {
-                    HabitResponse response = new HabitResponse(habit);
-                    // Check if completed today
-                    Optional<HabitLog> todayLog = habitService.getTodayLog(habit.getId());
-                    if (todayLog.isPresent()) {
-                        response.setCompletedToday(todayLog.get().getIsCompleted());
-                        response.setCompletedCountToday(todayLog.get().getCompletedCount());
-                    } else {
-                        response.setCompletedToday(false);
-                        response.setCompletedCountToday(0);
-                    }
-                    return response;
-                })
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(habitResponses);
+        // Loads habits with fresh streak/progress data and today's logs in a constant number of queries
+        VersionedDashboard dashboard = habitService.getVersionedDashboard(userId);
+        return ResponseEntity.ok().eTag(dashboard.etag()).body(dashboard.habits());
+    }
+    
+    /**
+     * Server-Sent Events: the dashboard once, then a "habit" event per changed habit and "habit-deleted" per deletion
+     */
+    @GetMapping(value = "/{userId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@PathVariable Long userId) {
+        return habitEventBroadcaster.subscribe(userId);
     }
     
     @GetMapping("/habit/{id}")
-    public ResponseEntity<Habit> getHabitById(@PathVariable Long id) {
-        Optional<Habit> habit = habitService.getHabitById(id);
+    public ResponseEntity<HabitView> getHabitById(@PathVariable Long id) {
+        Optional<HabitView> habit = habitService.getHabitById(id);
         if (habit.isPresent()) {
             return ResponseEntity.ok(habit.get());
         }
@@ -87,19 +116,24 @@ public class HabitController {
     @PostMapping("/{id}/log")
     public ResponseEntity<HabitLog> markHabitDone(@PathVariable Long id) {
         try {
-            HabitLog log = habitService.markHabitDone(id, LocalDate.now());
-            habitService.updateHabitProgress(id);
+            // Streak expiry and progress are recomputed asynchronously once the tap has committed
+            HabitLog log = habitService.markHabitDone(id);
             return ResponseEntity.ok(log);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    @PostMapping("/logs/batch")
+    public ResponseEntity<List<LogSyncResult>> syncLogs(@Valid @RequestBody LogSyncRequest request) {
+        // Replayed offline taps: one transaction for the whole batch, per-entry results in request order
+        return ResponseEntity.ok(habitService.syncLogs(request.getEntries()));
+    }
+    
     @PostMapping("/{id}/log/{completedCount}")
     public ResponseEntity<HabitLog> markHabitPartialDone(@PathVariable Long id, @PathVariable int completedCount) {
         try {
             HabitLog log = habitService.markHabitPartialDone(id, completedCount);
-            habitService.updateHabitProgress(id);
             return ResponseEntity.ok(log);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -107,24 +141,111 @@ public class HabitController {
     }
     
     @GetMapping("/{id}/progress")
-    public ResponseEntity<Habit> getHabitProgress(@PathVariable Long id) {
-        Optional<Habit> habit = habitService.getHabitById(id);
+    public ResponseEntity<HabitView> getHabitProgress(@PathVariable Long id) {
+        Optional<HabitView> habit = habitService.getHabitById(id);
         if (habit.isPresent()) {
             habitService.updateHabitProgress(id);
-            return ResponseEntity.ok(habit.get());
+            // Re-read so the response carries the recalculated progress
+            return ResponseEntity.ok(habitService.getHabitById(id).orElse(habit.get()));
         }
         return ResponseEntity.notFound().build();
     }
     
     @GetMapping("/{id}/logs")
-    public ResponseEntity<List<HabitLog>> getHabitLogs(@PathVariable Long id) {
-        List<HabitLog> logs = habitService.getHabitLogs(id);
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<List<HabitLogView>> getHabitLogs(@PathVariable Long id,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before,
+                                                           @RequestParam(required = false) Integer limit) {
+        if (before == null && limit == null) {
+            // Unpaged: the full history, as before
+            return ResponseEntity.ok(habitService.getHabitLogs(id));
+        }
+        
+        int pageSize = limit != null ? limit : DEFAULT_LOG_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_LOG_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        // Newest first; one extra row tells whether an older page exists
+        List<HabitLogView> logs = habitService.getHabitLogsPage(id, before, pageSize + 1);
+        if (logs.size() <= pageSize) {
+            return ResponseEntity.ok(logs);
+        }
+        List<HabitLogView> page = logs.subList(0, pageSize);
+        return ResponseEntity.ok()
+                .header(NEXT_BEFORE_HEADER, page.get(pageSize - 1).date().toString())
+                .body(page);
+    }
+    
+    @GetMapping(value = "/{id}/logs/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamHabitLogs(@PathVariable Long id) {
+        if (!habitService.getHabitById(id).isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        
+        // One JSON object per line, newest first, written as rows are read from the database cursor
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream);
+            habitService.streamHabitLogs(id, log -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(log));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+    
+    @GetMapping("/{id}/heatmap")
+    public ResponseEntity<HeatmapResponse> getHeatmap(@PathVariable Long id,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        // Defaults to the last 365 days, ending on the owner's today
+        LocalDate end;
+        try {
+            end = to != null ? to : habitService.getToday(id);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+        LocalDate start = from != null ? from : end.minusDays(364);
+        if (start.isAfter(end) || start.isBefore(end.minusYears(MAX_HEATMAP_YEARS))) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            return ResponseEntity.ok(habitService.getHeatmap(id, start, end));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<HabitStatsResponse> getStats(@PathVariable Long id,
+                                                       @RequestParam(defaultValue = "week") String granularity,
+                                                       @RequestParam(defaultValue = "12") int periods) {
+        Granularity rollupGranularity;
+        try {
+            rollupGranularity = Granularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (periods < 1 || periods > MAX_STATS_PERIODS) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            // Read from the weekly/monthly rollups, not from raw logs
+            return ResponseEntity.ok(habitService.getStats(id, rollupGranularity, periods));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
     
     @GetMapping("/{id}/today")
-    public ResponseEntity<HabitLog> getTodayLog(@PathVariable Long id) {
-        Optional<HabitLog> log = habitService.getTodayLog(id);
+    public ResponseEntity<HabitLogView> getTodayLog(@PathVariable Long id) {
+        Optional<HabitLogView> log = habitService.getTodayLog(id);
         if (log.isPresent()) {
             return ResponseEntity.ok(log.get());
         }
@@ -0,0 +1,65 @@
+package com.habittracker.controller;
+
+import com.habittracker.dto.LeaderboardResponse;
+import com.habittracker.leaderboard.LeaderboardService;
+import com.habittracker.leaderboard.LeaderboardService.Board;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class LeaderboardController {
+    
+    private static final int MAX_LIMIT = 100;
+    private static final int MAX_FRIENDS = 1000;
+    
+    @Autowired
+    private LeaderboardService leaderboardService;
+    
+    /**
+     * Top streaks, or the page around one user (board=users) or habit (board=habits) when around is given
+     */
+    @GetMapping
+    public ResponseEntity<LeaderboardResponse> getLeaderboard(@RequestParam(defaultValue = "users") String board,
+                                                              @RequestParam(defaultValue = "10") int limit,
+                                                              @RequestParam(required = false) Long around) {
+        Board leaderboard = parseBoard(board);
+        if (leaderboard == null || limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        LeaderboardResponse response = leaderboardService.getBoard(leaderboard, limit, around);
+        if (response == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * The board among a user and the given friends, e.g. /api/leaderboard/friends?userId=1&friendIds=2,3
+     */
+    @GetMapping("/friends")
+    public ResponseEntity<LeaderboardResponse> getFriendsLeaderboard(@RequestParam Long userId,
+                                                                     @RequestParam(defaultValue = "") List<Long> friendIds,
+                                                                     @RequestParam(defaultValue = "users") String board,
+                                                                     @RequestParam(defaultValue = "10") int limit) {
+        Board leaderboard = parseBoard(board);
+        if (leaderboard == null || limit < 1 || limit > MAX_LIMIT || friendIds.size() > MAX_FRIENDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(leaderboardService.getFriendsBoard(leaderboard, userId, friendIds, limit));
+    }
+    
+    private Board parseBoard(String board) {
+        try {
+            return Board.valueOf(board.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
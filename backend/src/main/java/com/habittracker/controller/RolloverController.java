@@ -0,0 +1,39 @@
+package com.habittracker.controller;
+
+import com.habittracker.dto.RolloverReport;
+import com.habittracker.service.DayRolloverService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/rollover")
+public class RolloverController {
+    
+    @Autowired
+    private DayRolloverService dayRolloverService;
+    
+    @GetMapping
+    public ResponseEntity<RolloverReport> getLastRollover() {
+        RolloverReport report = dayRolloverService.getLastReport();
+        if (report == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+    
+    /**
+     * Rolls over every zone as of its own current day; one report per UTC offset bucket
+     */
+    @PostMapping
+    public ResponseEntity<List<RolloverReport>> runRollover() {
+        List<RolloverReport> reports = dayRolloverService.runAllRollovers();
+        if (reports == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(reports);
+    }
+}
@@ -0,0 +1,25 @@
+package com.habittracker.controller;
+
+import com.habittracker.dto.RollupRebuildReport;
+import com.habittracker.service.RollupRebuildService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/rollups")
+public class RollupController {
+    
+    @Autowired
+    private RollupRebuildService rollupRebuildService;
+    
+    @PostMapping("/rebuild")
+    public ResponseEntity<RollupRebuildReport> rebuild() {
+        RollupRebuildReport report = rollupRebuildService.rebuildAll();
+        if (report == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(report);
+    }
+}
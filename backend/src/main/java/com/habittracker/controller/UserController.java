@@ -0,0 +1,46 @@
+package com.habittracker.controller;
+
+import com.habittracker.dto.UserTimeZone;
+import com.habittracker.service.UserClock;
+import com.habittracker.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+public class UserController {
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserClock userClock;
+    
+    @GetMapping("/{userId}/time-zone")
+    public ResponseEntity<UserTimeZone> getTimeZone(@PathVariable Long userId) {
+        ZoneId zone = userClock.zoneOf(userId);
+        return ResponseEntity.ok(new UserTimeZone(zone.getId(), LocalDate.now(zone)));
+    }
+    
+    /**
+     * Sets the zone in which the user's day starts; takes effect for the next request
+     */
+    @PutMapping("/{userId}/time-zone")
+    public ResponseEntity<UserTimeZone> setTimeZone(@PathVariable Long userId, @Valid @RequestBody UserTimeZone request) {
+        ZoneId zone;
+        try {
+            zone = ZoneId.of(request.getTimeZone());
+        } catch (DateTimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        userService.setTimeZone(userId, zone);
+        return ResponseEntity.ok(new UserTimeZone(zone.getId(), LocalDate.now(zone)));
+    }
+}
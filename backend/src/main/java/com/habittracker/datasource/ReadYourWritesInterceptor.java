@@ -0,0 +1,65 @@
+package com.habittracker.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Lets callers read their own writes despite replica lag. Every write stamps the caller with a cookie;
+ * reads that carry a stamp younger than the lag tolerance are pinned to the primary.
+ */
+@Component
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+    
+    static final String LAST_WRITE_COOKIE = "habit_last_write";
+    
+    @Autowired
+    private ReplicaConsistency replicaConsistency;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long now = System.currentTimeMillis();
+        long windowMillis = replicaConsistency.getReadYourWritesWindow().toMillis();
+        
+        String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            Cookie cookie = new Cookie(LAST_WRITE_COOKIE, Long.toString(now));
+            cookie.setPath("/api");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+            response.addCookie(cookie);
+            return true;
+        }
+        
+        Long lastWrite = lastWrite(request);
+        if (lastWrite != null && now - lastWrite < windowMillis) {
+            ReplicaRouting.forcePrimary();
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRouting.clear();
+    }
+    
+    private static Long lastWrite(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return null;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.habittracker.datasource;
+
+import com.habittracker.config.WorkerThreadFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lag tolerance of the read replica: how long after a write the replica may still serve the old state.
+ * Inactive (and free) unless replica routing is enabled.
+ */
+@Component
+public class ReplicaConsistency {
+    
+    @Value("${habittracker.datasource.replica.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${habittracker.datasource.replica.read-your-writes-window:PT5S}")
+    private Duration readYourWritesWindow;
+    
+    @Autowired
+    private WorkerThreadFactory workerThreadFactory;
+    
+    private ScheduledExecutorService scheduler;
+    
+    @PostConstruct
+    void init() {
+        if (enabled) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(workerThreadFactory.create("replica-lag-"));
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+    
+    /**
+     * Runs the task once the replica can be assumed to have caught up with a write committed now,
+     * e.g. to drop a cache entry that a replica read may have refilled with the old state.
+     */
+    public void afterLagWindow(Runnable task) {
+        if (scheduler != null) {
+            scheduler.schedule(task, readYourWritesWindow.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.habittracker.datasource;
+
+/**
+ * Per-thread override that pins reads to the primary, e.g. for a caller that has just written
+ */
+public final class ReplicaRouting {
+    
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+    
+    private ReplicaRouting() {
+    }
+    
+    public static void forcePrimary() {
+        FORCE_PRIMARY.set(Boolean.TRUE);
+    }
+    
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(FORCE_PRIMARY.get());
+    }
+    
+    public static void clear() {
+        FORCE_PRIMARY.remove();
+    }
+}
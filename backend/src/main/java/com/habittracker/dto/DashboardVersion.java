@@ -0,0 +1,43 @@
+package com.habittracker.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate over the rows a dashboard is built from. Any habit or today-log write changes at least one
+ * component: habit count or last update, stored streaks, today's log count or completion counts.
+ */
+public record DashboardVersion(
+        Long habitCount,
+        LocalDateTime lastHabitUpdate,
+        Long streakSum,
+        Long todayLogCount,
+        Long todayCompletedSum) {
+    
+    public DashboardVersion {
+        // SUM over no rows is NULL
+        habitCount = habitCount != null ? habitCount : 0L;
+        streakSum = streakSum != null ? streakSum : 0L;
+        todayLogCount = todayLogCount != null ? todayLogCount : 0L;
+        todayCompletedSum = todayCompletedSum != null ? todayCompletedSum : 0L;
+    }
+    
+    /**
+     * Weak entity tag of the dashboard for the given day
+     */
+    public String toEtag(LocalDate day) {
+        String lastUpdate = lastHabitUpdate != null ? lastHabitUpdate.toString() : "-";
+        String version = day + "|" + habitCount + "|" + lastUpdate + "|" + streakSum + "|" + todayLogCount + "|" + todayCompletedSum;
+        return "W/\"" + Long.toHexString(hash64(version)) + "\"";
+    }
+    
+    private static long hash64(String value) {
+        // FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
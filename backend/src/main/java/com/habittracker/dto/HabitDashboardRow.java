@@ -0,0 +1,21 @@
+package com.habittracker.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One dashboard row: a habit joined with today's log (count and completion are null when there is no log yet)
+ */
+public record HabitDashboardRow(
+        Long id,
+        String name,
+        String description,
+        Integer dailyGoal,
+        Integer streakCount,
+        LocalDate lastCompletedDate,
+        Long userId,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Integer completedCountToday,
+        Boolean completedToday) {
+}
@@ -0,0 +1,27 @@
+package com.habittracker.dto;
+
+import com.habittracker.entity.HabitLog;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a habit log with the same JSON shape as the {@link HabitLog} entity
+ */
+public record HabitLogView(
+        Long id,
+        Long habitId,
+        LocalDate date,
+        Integer completedCount,
+        Boolean isCompleted,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+    
+    public static final String SELECT = "SELECT new com.habittracker.dto.HabitLogView(hl.id, hl.habitId, hl.date, " +
+            "hl.completedCount, hl.isCompleted, hl.createdAt, hl.updatedAt) FROM HabitLog hl ";
+    
+    public static HabitLogView from(HabitLog log) {
+        return new HabitLogView(log.getId(), log.getHabitId(), log.getDate(), log.getCompletedCount(),
+                log.getIsCompleted(), log.getCreatedAt(), log.getUpdatedAt());
+    }
+}
@@ -34,6 +34,24 @@ public class HabitResponse {
         this.completedCountToday = 0; // This will be set based on today's log
     }
     
+    /**
+     * From a dashboard projection row, with the streak, progress and today's state as computed for display
+     */
+    public HabitResponse(HabitDashboardRow row, Integer streakCount, Double progressPercent,
+                         Boolean completedToday, Integer completedCountToday) {
+        this.id = row.id();
+        this.name = row.name();
+        this.description = row.description();
+        this.dailyGoal = row.dailyGoal();
+        this.streakCount = streakCount;
+        this.progressPercent = progressPercent;
+        this.userId = row.userId();
+        this.createdAt = row.createdAt();
+        this.updatedAt = row.updatedAt();
+        this.completedToday = completedToday != null ? completedToday : false;
+        this.completedCountToday = completedCountToday != null ? completedCountToday : 0;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,146 @@
+package com.habittracker.dto;
+
+import com.habittracker.entity.HabitCompletionRollup.Granularity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class HabitStatsResponse {
+    
+    private Long habitId;
+    private Granularity granularity;
+    private List<PeriodStats> periods;
+    private Integer completedDays;
+    private Integer trackedDays;
+    private Double completionRate;
+    
+    // Constructors
+    public HabitStatsResponse() {}
+    
+    public HabitStatsResponse(Long habitId, Granularity granularity, List<PeriodStats> periods) {
+        this.habitId = habitId;
+        this.granularity = granularity;
+        this.periods = periods;
+        this.completedDays = periods.stream().mapToInt(PeriodStats::getCompletedDays).sum();
+        this.trackedDays = periods.stream().mapToInt(PeriodStats::getTrackedDays).sum();
+        this.completionRate = rate(completedDays, trackedDays);
+    }
+    
+    private static double rate(int completedDays, int trackedDays) {
+        if (trackedDays == 0) {
+            return 0.0;
+        }
+        return Math.round((double) completedDays / trackedDays * 10000.0) / 100.0; // Percentage, 2 decimal places
+    }
+    
+    // Getters and Setters
+    public Long getHabitId() {
+        return habitId;
+    }
+    
+    public void setHabitId(Long habitId) {
+        this.habitId = habitId;
+    }
+    
+    public Granularity getGranularity() {
+        return granularity;
+    }
+    
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+    
+    public List<PeriodStats> getPeriods() {
+        return periods;
+    }
+    
+    public void setPeriods(List<PeriodStats> periods) {
+        this.periods = periods;
+    }
+    
+    public Integer getCompletedDays() {
+        return completedDays;
+    }
+    
+    public void setCompletedDays(Integer completedDays) {
+        this.completedDays = completedDays;
+    }
+    
+    public Integer getTrackedDays() {
+        return trackedDays;
+    }
+    
+    public void setTrackedDays(Integer trackedDays) {
+        this.trackedDays = trackedDays;
+    }
+    
+    public Double getCompletionRate() {
+        return completionRate;
+    }
+    
+    public void setCompletionRate(Double completionRate) {
+        this.completionRate = completionRate;
+    }
+    
+    /**
+     * One week or month. Tracked days exclude days before the habit existed and days still to come.
+     */
+    public static class PeriodStats {
+        
+        private LocalDate periodStart;
+        private LocalDate periodEnd;
+        private Integer completedDays;
+        private Integer trackedDays;
+        private Double completionRate;
+        
+        public PeriodStats() {}
+        
+        public PeriodStats(LocalDate periodStart, LocalDate periodEnd, Integer completedDays, Integer trackedDays) {
+            this.periodStart = periodStart;
+            this.periodEnd = periodEnd;
+            this.completedDays = completedDays;
+            this.trackedDays = trackedDays;
+            this.completionRate = rate(completedDays, trackedDays);
+        }
+        
+        public LocalDate getPeriodStart() {
+            return periodStart;
+        }
+        
+        public void setPeriodStart(LocalDate periodStart) {
+            this.periodStart = periodStart;
+        }
+        
+        public LocalDate getPeriodEnd() {
+            return periodEnd;
+        }
+        
+        public void setPeriodEnd(LocalDate periodEnd) {
+            this.periodEnd = periodEnd;
+        }
+        
+        public Integer getCompletedDays() {
+            return completedDays;
+        }
+        
+        public void setCompletedDays(Integer completedDays) {
+            this.completedDays = completedDays;
+        }
+        
+        public Integer getTrackedDays() {
+            return trackedDays;
+        }
+        
+        public void setTrackedDays(Integer trackedDays) {
+            this.trackedDays = trackedDays;
+        }
+        
+        public Double getCompletionRate() {
+            return completionRate;
+        }
+        
+        public void setCompletionRate(Double completionRate) {
+            this.completionRate = completionRate;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.habittracker.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a habit with the same JSON shape as the {@link com.habittracker.entity.Habit} entity
+ */
+public record HabitView(
+        Long id,
+        String name,
+        String description,
+        Integer dailyGoal,
+        Integer streakCount,
+        LocalDate lastCompletedDate,
+        Double progressPercent,
+        Long userId,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+    
+    public static final String SELECT = "SELECT new com.habittracker.dto.HabitView(h.id, h.name, h.description, h.dailyGoal, " +
+            "h.streakCount, h.lastCompletedDate, h.progressPercent, h.userId, h.createdAt, h.updatedAt) FROM Habit h ";
+}
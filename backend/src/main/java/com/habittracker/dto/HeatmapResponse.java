@@ -0,0 +1,95 @@
+package com.habittracker.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class HeatmapResponse {
+    
+    private Long habitId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<LocalDate> completedDays;
+    private Integer completedCount;
+    private Integer totalDays;
+    private Double completionRate;
+    private Integer currentStreak;
+    
+    // Constructors
+    public HeatmapResponse() {}
+    
+    public HeatmapResponse(Long habitId, LocalDate from, LocalDate to, List<LocalDate> completedDays, Integer currentStreak) {
+        this.habitId = habitId;
+        this.from = from;
+        this.to = to;
+        this.completedDays = completedDays;
+        this.completedCount = completedDays.size();
+        this.totalDays = (int) (to.toEpochDay() - from.toEpochDay()) + 1;
+        this.completionRate = Math.round((double) completedCount / totalDays * 10000.0) / 100.0; // Percentage, 2 decimal places
+        this.currentStreak = currentStreak;
+    }
+    
+    // Getters and Setters
+    public Long getHabitId() {
+        return habitId;
+    }
+    
+    public void setHabitId(Long habitId) {
+        this.habitId = habitId;
+    }
+    
+    public LocalDate getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+    
+    public LocalDate getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+    
+    public List<LocalDate> getCompletedDays() {
+        return completedDays;
+    }
+    
+    public void setCompletedDays(List<LocalDate> completedDays) {
+        this.completedDays = completedDays;
+    }
+    
+    public Integer getCompletedCount() {
+        return completedCount;
+    }
+    
+    public void setCompletedCount(Integer completedCount) {
+        this.completedCount = completedCount;
+    }
+    
+    public Integer getTotalDays() {
+        return totalDays;
+    }
+    
+    public void setTotalDays(Integer totalDays) {
+        this.totalDays = totalDays;
+    }
+    
+    public Double getCompletionRate() {
+        return completionRate;
+    }
+    
+    public void setCompletionRate(Double completionRate) {
+        this.completionRate = completionRate;
+    }
+    
+    public Integer getCurrentStreak() {
+        return currentStreak;
+    }
+    
+    public void setCurrentStreak(Integer currentStreak) {
+        this.currentStreak = currentStreak;
+    }
+}
@@ -0,0 +1,67 @@
+package com.habittracker.dto;
+
+/**
+ * One row of a streak leaderboard. On the users board id is the user ID, on the habits board the habit ID.
+ * rank is the position on the board that was requested; globalRank is the position on the global board
+ * (null for a friend without a streak).
+ */
+public class LeaderboardEntry {
+    
+    private Integer rank;
+    private Integer globalRank;
+    private Long id;
+    private Long userId;
+    private Integer streak;
+    
+    // Constructors
+    public LeaderboardEntry() {}
+    
+    public LeaderboardEntry(Integer rank, Integer globalRank, Long id, Long userId, Integer streak) {
+        this.rank = rank;
+        this.globalRank = globalRank;
+        this.id = id;
+        this.userId = userId;
+        this.streak = streak;
+    }
+    
+    // Getters and Setters
+    public Integer getRank() {
+        return rank;
+    }
+    
+    public void setRank(Integer rank) {
+        this.rank = rank;
+    }
+    
+    public Integer getGlobalRank() {
+        return globalRank;
+    }
+    
+    public void setGlobalRank(Integer globalRank) {
+        this.globalRank = globalRank;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Integer getStreak() {
+        return streak;
+    }
+    
+    public void setStreak(Integer streak) {
+        this.streak = streak;
+    }
+}
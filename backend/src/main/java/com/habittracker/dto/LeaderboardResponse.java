@@ -0,0 +1,47 @@
+package com.habittracker.dto;
+
+import java.util.List;
+
+/**
+ * A page of a streak leaderboard; rankedCount is the number of users or habits with a streak on the global board
+ */
+public class LeaderboardResponse {
+    
+    private String board;
+    private Integer rankedCount;
+    private List<LeaderboardEntry> entries;
+    
+    // Constructors
+    public LeaderboardResponse() {}
+    
+    public LeaderboardResponse(String board, Integer rankedCount, List<LeaderboardEntry> entries) {
+        this.board = board;
+        this.rankedCount = rankedCount;
+        this.entries = entries;
+    }
+    
+    // Getters and Setters
+    public String getBoard() {
+        return board;
+    }
+    
+    public void setBoard(String board) {
+        this.board = board;
+    }
+    
+    public Integer getRankedCount() {
+        return rankedCount;
+    }
+    
+    public void setRankedCount(Integer rankedCount) {
+        this.rankedCount = rankedCount;
+    }
+    
+    public List<LeaderboardEntry> getEntries() {
+        return entries;
+    }
+    
+    public void setEntries(List<LeaderboardEntry> entries) {
+        this.entries = entries;
+    }
+}
@@ -0,0 +1,38 @@
+package com.habittracker.dto;
+
+import java.time.LocalDate;
+
+/**
+ * A number of completions to add to one habit's log for one day
+ */
+public class LogIncrement {
+    
+    private final Long habitId;
+    private final LocalDate date;
+    private final int count;
+    private final int dailyGoal;
+    
+    public LogIncrement(Long habitId, LocalDate date, int count, int dailyGoal) {
+        this.habitId = habitId;
+        this.date = date;
+        this.count = count;
+        this.dailyGoal = dailyGoal;
+    }
+    
+    // Getters
+    public Long getHabitId() {
+        return habitId;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public int getCount() {
+        return count;
+    }
+    
+    public int getDailyGoal() {
+        return dailyGoal;
+    }
+}
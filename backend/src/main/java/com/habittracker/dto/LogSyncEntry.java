@@ -0,0 +1,56 @@
+package com.habittracker.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/**
+ * One replayed tap (or several taps on the same habit and day) from an offline client
+ */
+public class LogSyncEntry {
+    
+    @NotNull(message = "Habit ID is required")
+    private Long habitId;
+    
+    @NotNull(message = "Date is required")
+    private LocalDate date;
+    
+    @NotNull(message = "Count is required")
+    @Min(value = 1, message = "Count must be at least 1")
+    private Integer count = 1;
+    
+    // Constructors
+    public LogSyncEntry() {}
+    
+    public LogSyncEntry(Long habitId, LocalDate date, Integer count) {
+        this.habitId = habitId;
+        this.date = date;
+        this.count = count;
+    }
+    
+    // Getters and Setters
+    public Long getHabitId() {
+        return habitId;
+    }
+    
+    public void setHabitId(Long habitId) {
+        this.habitId = habitId;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public Integer getCount() {
+        return count;
+    }
+    
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+}
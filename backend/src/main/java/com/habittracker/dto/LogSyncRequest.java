@@ -0,0 +1,33 @@
+package com.habittracker.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class LogSyncRequest {
+    
+    public static final int MAX_ENTRIES = 1000;
+    
+    @NotEmpty(message = "At least one entry is required")
+    @Size(max = MAX_ENTRIES, message = "At most " + MAX_ENTRIES + " entries per batch")
+    private List<@NotNull(message = "Entries must not be null") @Valid LogSyncEntry> entries;
+    
+    // Constructors
+    public LogSyncRequest() {}
+    
+    public LogSyncRequest(List<LogSyncEntry> entries) {
+        this.entries = entries;
+    }
+    
+    // Getters and Setters
+    public List<LogSyncEntry> getEntries() {
+        return entries;
+    }
+    
+    public void setEntries(List<LogSyncEntry> entries) {
+        this.entries = entries;
+    }
+}
@@ -0,0 +1,87 @@
+package com.habittracker.dto;
+
+import com.habittracker.entity.HabitLog;
+
+import java.time.LocalDate;
+
+/**
+ * Outcome of one batch entry, in request order. Applied entries carry the day's log state after the whole batch.
+ */
+public class LogSyncResult {
+    
+    public enum Status {
+        APPLIED,
+        HABIT_NOT_FOUND,
+        FUTURE_DATE
+    }
+    
+    private int index;
+    private Long habitId;
+    private LocalDate date;
+    private Status status;
+    private Integer completedCount;
+    private Boolean isCompleted;
+    
+    // Constructors
+    public LogSyncResult() {}
+    
+    public LogSyncResult(int index, LogSyncEntry entry, Status status, HabitLog log) {
+        this.index = index;
+        this.habitId = entry.getHabitId();
+        this.date = entry.getDate();
+        this.status = status;
+        if (log != null) {
+            this.completedCount = log.getCompletedCount();
+            this.isCompleted = log.getIsCompleted();
+        }
+    }
+    
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public Long getHabitId() {
+        return habitId;
+    }
+    
+    public void setHabitId(Long habitId) {
+        this.habitId = habitId;
+    }
+    
+    public LocalDate getDate() {
+        return date;
+    }
+    
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+    
+    public Integer getCompletedCount() {
+        return completedCount;
+    }
+    
+    public void setCompletedCount(Integer completedCount) {
+        this.completedCount = completedCount;
+    }
+    
+    public Boolean getIsCompleted() {
+        return isCompleted;
+    }
+    
+    public void setIsCompleted(Boolean isCompleted) {
+        this.isCompleted = isCompleted;
+    }
+}
@@ -0,0 +1,71 @@
+package com.habittracker.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outcome of the rollover of one zone bucket: all zones that currently share a UTC offset
+ */
+public class RolloverReport {
+    
+    private final LocalDate rolloverDate;
+    private final String utcOffset;
+    private final List<String> zones;
+    private final LocalDateTime startedAt;
+    private final long durationMillis;
+    private final int chunkCount;
+    private final int failedChunks;
+    private final long habitsUpdated;
+    private final long usersUpdated;
+    
+    public RolloverReport(LocalDate rolloverDate, String utcOffset, List<String> zones, LocalDateTime startedAt,
+                          long durationMillis, int chunkCount, int failedChunks, long habitsUpdated, long usersUpdated) {
+        this.rolloverDate = rolloverDate;
+        this.utcOffset = utcOffset;
+        this.zones = zones;
+        this.startedAt = startedAt;
+        this.durationMillis = durationMillis;
+        this.chunkCount = chunkCount;
+        this.failedChunks = failedChunks;
+        this.habitsUpdated = habitsUpdated;
+        this.usersUpdated = usersUpdated;
+    }
+    
+    // Getters
+    public LocalDate getRolloverDate() {
+        return rolloverDate;
+    }
+    
+    public String getUtcOffset() {
+        return utcOffset;
+    }
+    
+    public List<String> getZones() {
+        return zones;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+    
+    public int getChunkCount() {
+        return chunkCount;
+    }
+    
+    public int getFailedChunks() {
+        return failedChunks;
+    }
+    
+    public long getHabitsUpdated() {
+        return habitsUpdated;
+    }
+    
+    public long getUsersUpdated() {
+        return usersUpdated;
+    }
+}
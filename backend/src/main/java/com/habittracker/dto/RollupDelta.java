@@ -0,0 +1,40 @@
+package com.habittracker.dto;
+
+import com.habittracker.entity.HabitCompletionRollup.Granularity;
+
+import java.time.LocalDate;
+
+/**
+ * A change in the number of completed days of one habit in one rollup period
+ */
+public class RollupDelta {
+    
+    private final Long habitId;
+    private final Granularity granularity;
+    private final LocalDate periodStart;
+    private final int delta;
+    
+    public RollupDelta(Long habitId, Granularity granularity, LocalDate periodStart, int delta) {
+        this.habitId = habitId;
+        this.granularity = granularity;
+        this.periodStart = periodStart;
+        this.delta = delta;
+    }
+    
+    // Getters
+    public Long getHabitId() {
+        return habitId;
+    }
+    
+    public Granularity getGranularity() {
+        return granularity;
+    }
+    
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+    
+    public int getDelta() {
+        return delta;
+    }
+}
@@ -0,0 +1,64 @@
+package com.habittracker.dto;
+
+import java.time.LocalDateTime;
+
+public class RollupRebuildReport {
+    
+    private LocalDateTime startedAt;
+    private Long durationMillis;
+    private Integer chunkCount;
+    private Integer failedChunks;
+    private Long rollupRows;
+    
+    // Constructors
+    public RollupRebuildReport() {}
+    
+    public RollupRebuildReport(LocalDateTime startedAt, Long durationMillis, Integer chunkCount, Integer failedChunks, Long rollupRows) {
+        this.startedAt = startedAt;
+        this.durationMillis = durationMillis;
+        this.chunkCount = chunkCount;
+        this.failedChunks = failedChunks;
+        this.rollupRows = rollupRows;
+    }
+    
+    // Getters and Setters
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public Long getDurationMillis() {
+        return durationMillis;
+    }
+    
+    public void setDurationMillis(Long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+    
+    public Integer getChunkCount() {
+        return chunkCount;
+    }
+    
+    public void setChunkCount(Integer chunkCount) {
+        this.chunkCount = chunkCount;
+    }
+    
+    public Integer getFailedChunks() {
+        return failedChunks;
+    }
+    
+    public void setFailedChunks(Integer failedChunks) {
+        this.failedChunks = failedChunks;
+    }
+    
+    public Long getRollupRows() {
+        return rollupRows;
+    }
+    
+    public void setRollupRows(Long rollupRows) {
+        this.rollupRows = rollupRows;
+    }
+}
@@ -0,0 +1,7 @@
+package com.habittracker.dto;
+
+/**
+ * A user's or habit's stored streak and its owning user, as loaded into the leaderboard
+ */
+public record StreakRow(Long id, Long userId, Integer streak) {
+}
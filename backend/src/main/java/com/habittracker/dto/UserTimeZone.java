@@ -0,0 +1,41 @@
+package com.habittracker.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.time.LocalDate;
+
+/**
+ * A user's time zone (IANA ID such as "Europe/Berlin") and the current day in it
+ */
+public class UserTimeZone {
+    
+    @NotBlank(message = "Time zone is required")
+    private String timeZone;
+    
+    private LocalDate today;
+    
+    // Constructors
+    public UserTimeZone() {}
+    
+    public UserTimeZone(String timeZone, LocalDate today) {
+        this.timeZone = timeZone;
+        this.today = today;
+    }
+    
+    // Getters and Setters
+    public String getTimeZone() {
+        return timeZone;
+    }
+    
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+    
+    public LocalDate getToday() {
+        return today;
+    }
+    
+    public void setToday(LocalDate today) {
+        this.today = today;
+    }
+}
@@ -0,0 +1,9 @@
+package com.habittracker.dto;
+
+import java.util.List;
+
+/**
+ * Dashboard together with the entity tag it was built at
+ */
+public record VersionedDashboard(String etag, List<HabitResponse> habits) {
+}
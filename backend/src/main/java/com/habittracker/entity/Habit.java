@@ -5,15 +5,22 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Min;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
 @Table(name = "habits")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "habits")
 public class Habit {
     
+    // Pooled sequence so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "habits_seq")
+    @SequenceGenerator(name = "habits_seq", sequenceName = "habits_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Habit name is required")
@@ -31,6 +38,10 @@ public class Habit {
     @Column(name = "streak_count")
     private Integer streakCount = 0;
     
+    // Most recent completed day; streakCount is the length of the run ending on this day
+    @Column(name = "last_completed_date")
+    private LocalDate lastCompletedDate;
+    
     @Column(name = "progress_percent")
     private Double progressPercent = 0.0;
     
@@ -102,6 +113,14 @@ public class Habit {
         this.streakCount = streakCount;
     }
     
+    public LocalDate getLastCompletedDate() {
+        return lastCompletedDate;
+    }
+    
+    public void setLastCompletedDate(LocalDate lastCompletedDate) {
+        this.lastCompletedDate = lastCompletedDate;
+    }
+    
     public Double getProgressPercent() {
         return progressPercent;
     }
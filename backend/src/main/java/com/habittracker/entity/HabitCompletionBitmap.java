@@ -0,0 +1,91 @@
+package com.habittracker.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Completion history of one habit for one calendar year, one bit per day
+ * (bit 0 is January 1st). Kept in sync with {@link HabitLog#getIsCompleted()}.
+ */
+@Entity
+@Table(name = "habit_completion_bitmaps", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"habit_id", "bitmap_year"})
+})
+public class HabitCompletionBitmap {
+    
+    // 366 days rounded up to whole bytes
+    public static final int MAX_BYTES = 46;
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "habit_id", nullable = false)
+    private Long habitId;
+    
+    @Column(name = "bitmap_year", nullable = false)
+    private Integer year;
+    
+    @Column(name = "bits", nullable = false, length = MAX_BYTES)
+    private byte[] bits = new byte[0];
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public HabitCompletionBitmap() {
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    public HabitCompletionBitmap(Long habitId, Integer year) {
+        this();
+        this.habitId = habitId;
+        this.year = year;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getHabitId() {
+        return habitId;
+    }
+    
+    public void setHabitId(Long habitId) {
+        this.habitId = habitId;
+    }
+    
+    public Integer getYear() {
+        return year;
+    }
+    
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+    
+    public byte[] getBits() {
+        return bits;
+    }
+    
+    public void setBits(byte[] bits) {
+        this.bits = bits;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,107 @@
+package com.habittracker.entity;
+
+import jakarta.persistence.*;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Number of completed days of one habit in one ISO week or calendar month.
+ * Maintained incrementally whenever a day's completion state changes.
+ */
+@Entity
+@Table(name = "habit_completion_rollups", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"habit_id", "granularity", "period_start"})
+})
+public class HabitCompletionRollup {
+    
+    public enum Granularity {
+        WEEK,
+        MONTH;
+        
+        public LocalDate periodStart(LocalDate date) {
+            return this == WEEK ? date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : date.withDayOfMonth(1);
+        }
+        
+        public LocalDate periodEnd(LocalDate periodStart) {
+            return plusPeriods(periodStart, 1).minusDays(1);
+        }
+        
+        public LocalDate plusPeriods(LocalDate periodStart, long periods) {
+            return this == WEEK ? periodStart.plusWeeks(periods) : periodStart.plusMonths(periods);
+        }
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "habit_id", nullable = false)
+    private Long habitId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 10)
+    private Granularity granularity;
+    
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+    
+    @Column(name = "completed_days", nullable = false)
+    private Integer completedDays = 0;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public HabitCompletionRollup() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getHabitId() {
+        return habitId;
+    }
+    
+    public void setHabitId(Long habitId) {
+        this.habitId = habitId;
+    }
+    
+    public Granularity getGranularity() {
+        return granularity;
+    }
+    
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+    
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+    
+    public void setPeriodStart(LocalDate periodStart) {
+        this.periodStart = periodStart;
+    }
+    
+    public Integer getCompletedDays() {
+        return completedDays;
+    }
+    
+    public void setCompletedDays(Integer completedDays) {
+        this.completedDays = completedDays;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
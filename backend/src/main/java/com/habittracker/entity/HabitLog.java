@@ -12,8 +12,10 @@ import java.time.LocalDateTime;
 })
 public class HabitLog {
     
+    // Pooled sequence so inserts can be JDBC-batched; native upserts draw from the same sequence
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "habit_logs_seq")
+    @SequenceGenerator(name = "habit_logs_seq", sequenceName = "habit_logs_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "Habit ID is required")
@@ -18,6 +18,10 @@ public class User {
     @Column(name = "last_activity_date")
     private LocalDate lastActivityDate;
     
+    // IANA zone ID that decides when the user's day starts; null means the server's default zone
+    @Column(name = "time_zone", length = 64)
+    private String timeZone;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
@@ -60,6 +64,14 @@ public class User {
         this.lastActivityDate = lastActivityDate;
     }
     
+    public String getTimeZone() {
+        return timeZone;
+    }
+    
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
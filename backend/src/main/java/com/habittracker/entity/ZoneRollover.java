@@ -0,0 +1,57 @@
+package com.habittracker.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Last local day a time zone was rolled over for by the day rollover.
+ */
+@Entity
+@Table(name = "zone_rollovers")
+public class ZoneRollover {
+    
+    @Id
+    @Column(name = "zone_id", length = 64)
+    private String zoneId;
+    
+    @Column(name = "rolled_over_through", nullable = false)
+    private LocalDate rolledOverThrough;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public ZoneRollover() {}
+    
+    public ZoneRollover(String zoneId, LocalDate rolledOverThrough) {
+        this.zoneId = zoneId;
+        this.rolledOverThrough = rolledOverThrough;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public String getZoneId() {
+        return zoneId;
+    }
+    
+    public void setZoneId(String zoneId) {
+        this.zoneId = zoneId;
+    }
+    
+    public LocalDate getRolledOverThrough() {
+        return rolledOverThrough;
+    }
+    
+    public void setRolledOverThrough(LocalDate rolledOverThrough) {
+        this.rolledOverThrough = rolledOverThrough;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
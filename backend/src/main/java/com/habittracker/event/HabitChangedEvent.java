@@ -0,0 +1,40 @@
+package com.habittracker.event;
+
+/**
+ * Published inside the transaction that changed a habit or its logs. Handled after commit by the SSE
+ * broadcaster and by the derived-field recomputation.
+ */
+public class HabitChangedEvent {
+    
+    private final Long userId;
+    private final Long habitId;
+    private final boolean deleted;
+    
+    // Constructors
+    public HabitChangedEvent(Long userId, Long habitId, boolean deleted) {
+        this.userId = userId;
+        this.habitId = habitId;
+        this.deleted = deleted;
+    }
+    
+    public static HabitChangedEvent changed(Long userId, Long habitId) {
+        return new HabitChangedEvent(userId, habitId, false);
+    }
+    
+    public static HabitChangedEvent deleted(Long userId, Long habitId) {
+        return new HabitChangedEvent(userId, habitId, true);
+    }
+    
+    // Getters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public Long getHabitId() {
+        return habitId;
+    }
+    
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
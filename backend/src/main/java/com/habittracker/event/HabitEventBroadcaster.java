@@ -0,0 +1,228 @@
+package com.habittracker.event;
+
+import com.habittracker.config.WorkerThreadFactory;
+import com.habittracker.datasource.ReplicaRouting;
+import com.habittracker.dto.HabitResponse;
+import com.habittracker.service.HabitService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events per user. Subscribers get the current dashboard once, then a "habit" event with the
+ * fresh {@link HabitResponse} for every committed change and a "habit-deleted" event for deletions.
+ * Changes that commit while a user's previous delivery is still pending are merged into it.
+ * Each subscriber is written to from its own queue off the delivery thread, so a slow client only delays
+ * itself; one that falls more than max-queued-events behind is disconnected and resyncs on reconnect.
+ */
+@Component
+public class HabitEventBroadcaster {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HabitEventBroadcaster.class);
+    
+    @Autowired
+    private HabitService habitService;
+    
+    @Autowired
+    private WorkerThreadFactory workerThreadFactory;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${habittracker.events.timeout-ms:1800000}")
+    private long timeoutMs;
+    
+    @Value("${habittracker.events.max-queued-events:100}")
+    private int maxQueuedEvents;
+    
+    private final Map<Long, List<Subscriber>> emittersByUser = new ConcurrentHashMap<>();
+    
+    /** Per user: habit ID -> deleted, waiting to be delivered */
+    private final Map<Long, Map<Long, Boolean>> pendingByUser = new HashMap<>();
+    
+    private ExecutorService deliveryExecutor;
+    private ExecutorService sendExecutor;
+    
+    @PostConstruct
+    void init() {
+        // One thread keeps each user's events in commit order
+        deliveryExecutor = Executors.newSingleThreadExecutor(workerThreadFactory.create("habit-events-"));
+        // Blocking writes; at most one thread per subscriber with queued events
+        sendExecutor = Executors.newCachedThreadPool(workerThreadFactory.create("habit-events-send-"));
+        Gauge.builder("habit.event.subscribers", () -> emittersByUser.values().stream().mapToInt(List::size).sum())
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        deliveryExecutor.shutdownNow();
+        sendExecutor.shutdownNow();
+        emittersByUser.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+    
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter);
+        emittersByUser.compute(userId, (id, subscribers) -> {
+            List<Subscriber> subscribed = subscribers != null ? subscribers : new CopyOnWriteArrayList<>();
+            subscribed.add(subscriber);
+            return subscribed;
+        });
+        emitter.onCompletion(() -> unsubscribe(userId, subscriber));
+        emitter.onTimeout(() -> unsubscribe(userId, subscriber));
+        emitter.onError(e -> unsubscribe(userId, subscriber));
+        
+        // Initial state, so nothing is lost between the client's last poll and the subscription
+        send(userId, subscriber, SseEmitter.event().name("dashboard").data(habitService.getDashboard(userId)));
+        return emitter;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onHabitChanged(HabitChangedEvent event) {
+        if (!emittersByUser.containsKey(event.getUserId())) {
+            return;
+        }
+        boolean schedule;
+        synchronized (pendingByUser) {
+            Map<Long, Boolean> pending = pendingByUser.get(event.getUserId());
+            schedule = pending == null;
+            if (schedule) {
+                pending = new LinkedHashMap<>();
+                pendingByUser.put(event.getUserId(), pending);
+            }
+            pending.merge(event.getHabitId(), event.isDeleted(), Boolean::logicalOr);
+        }
+        if (schedule) {
+            deliveryExecutor.execute(() -> deliver(event.getUserId()));
+        }
+    }
+    
+    /**
+     * Comment line that keeps idle connections open through proxies and detects closed clients
+     */
+    @Scheduled(fixedDelayString = "${habittracker.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        emittersByUser.forEach((userId, subscribers) ->
+                subscribers.forEach(subscriber -> send(userId, subscriber, SseEmitter.event().comment("heartbeat"))));
+    }
+    
+    private void deliver(Long userId) {
+        Map<Long, Boolean> pending;
+        synchronized (pendingByUser) {
+            pending = pendingByUser.remove(userId);
+        }
+        List<Subscriber> subscribers = emittersByUser.get(userId);
+        if (pending == null || subscribers == null || subscribers.isEmpty()) {
+            return;
+        }
+        
+        Map<Long, HabitResponse> current = new HashMap<>();
+        if (pending.containsValue(Boolean.FALSE)) {
+            // The change has just committed on the primary; a lagging replica could still return the old state
+            ReplicaRouting.forcePrimary();
+            try {
+                for (HabitResponse response : habitService.getDashboard(userId)) {
+                    current.put(response.getId(), response);
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not load habit events for user {}", userId, e);
+                return;
+            } finally {
+                ReplicaRouting.clear();
+            }
+        }
+        
+        pending.forEach((habitId, deleted) -> {
+            HabitResponse response = current.get(habitId);
+            SseEmitter.SseEventBuilder event = deleted || response == null
+                    ? SseEmitter.event().name("habit-deleted").data(Map.of("id", habitId))
+                    : SseEmitter.event().name("habit").data(response);
+            subscribers.forEach(subscriber -> send(userId, subscriber, event));
+            meterRegistry.counter("habit.events.sent", "type", deleted ? "deleted" : "changed").increment(subscribers.size());
+        });
+    }
+    
+    /**
+     * Queues the event for the subscriber and starts writing its queue if no write is running
+     */
+    private void send(Long userId, Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.queued.incrementAndGet() > maxQueuedEvents) {
+            meterRegistry.counter("habit.events.dropped.subscribers").increment();
+            logger.warn("Disconnecting a slow event subscriber of user {}: more than {} events queued", userId, maxQueuedEvents);
+            unsubscribe(userId, subscriber);
+            subscriber.emitter.complete();
+            return;
+        }
+        subscriber.queue.add(event);
+        if (subscriber.writing.compareAndSet(false, true)) {
+            sendExecutor.execute(() -> drain(userId, subscriber));
+        }
+    }
+    
+    private void drain(Long userId, Subscriber subscriber) {
+        while (true) {
+            SseEmitter.SseEventBuilder event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.queued.decrementAndGet();
+                try {
+                    subscriber.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away; drop it without affecting the others
+                    unsubscribe(userId, subscriber);
+                    subscriber.queue.clear();
+                    return;
+                }
+            }
+            subscriber.writing.set(false);
+            // An event queued after the last poll but before the flag was cleared would otherwise wait for the next one
+            if (subscriber.queue.isEmpty() || !subscriber.writing.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+    
+    private void unsubscribe(Long userId, Subscriber subscriber) {
+        emittersByUser.computeIfPresent(userId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+    
+    /**
+     * One SSE connection with the events waiting to be written to it
+     */
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean writing = new AtomicBoolean();
+        
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.habittracker.leaderboard;
+
+import com.habittracker.config.WorkerThreadFactory;
+import com.habittracker.datasource.ReplicaRouting;
+import com.habittracker.dto.LeaderboardEntry;
+import com.habittracker.dto.LeaderboardResponse;
+import com.habittracker.dto.StreakRow;
+import com.habittracker.repository.HabitRepository;
+import com.habittracker.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * Streak leaderboards served from in-memory rank indexes: users by total streak and habits by streak.
+ * Streak changes are applied once their transaction commits, including the streaks the day rollover
+ * expires in bulk; the indexes are rebuilt from the database at startup.
+ */
+@Service
+public class LeaderboardService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+    
+    public enum Board {
+        USERS, HABITS
+    }
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private HabitRepository habitRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private WorkerThreadFactory workerThreadFactory;
+    
+    @Value("${habittracker.leaderboard.rebuild-page-size:10000}")
+    private int rebuildPageSize;
+    
+    @Value("${habittracker.leaderboard.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+    
+    private volatile StreakRankIndex users = new StreakRankIndex();
+    private volatile StreakRankIndex habits = new StreakRankIndex();
+    
+    /** Updates applied while a rebuild is loading, replayed onto the new indexes before they are swapped in */
+    private Map<Board, Map<Long, StreakRow>> updatesDuringRebuild;
+    private final Object swapLock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    
+    @PostConstruct
+    void init() {
+        Gauge.builder("habit.leaderboard.entries", () -> users.size()).tag("board", "users").register(meterRegistry);
+        Gauge.builder("habit.leaderboard.entries", () -> habits.size()).tag("board", "habits").register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            workerThreadFactory.create("leaderboard-rebuild-").newThread(this::rebuild).start();
+        }
+    }
+    
+    /**
+     * Records a user's new total streak once the surrounding transaction commits
+     */
+    public void recordUserStreak(Long userId, int streak) {
+        afterCommit(() -> apply(Board.USERS, new StreakRow(userId, userId, streak)));
+    }
+    
+    /**
+     * Records a habit's new streak once the surrounding transaction commits
+     */
+    public void recordHabitStreak(Long habitId, Long userId, Integer streak) {
+        int value = streak != null ? streak : 0;
+        afterCommit(() -> apply(Board.HABITS, new StreakRow(habitId, userId, value)));
+    }
+    
+    public void removeHabit(Long habitId, Long userId) {
+        afterCommit(() -> apply(Board.HABITS, new StreakRow(habitId, userId, 0)));
+    }
+    
+    /**
+     * Top of the board, or the window of the given size centred on the entry with ID around.
+     * Returns null if around has no streak on the board.
+     */
+    public LeaderboardResponse getBoard(Board board, int limit, Long around) {
+        StreakRankIndex index = index(board);
+        int fromRank = 1;
+        if (around != null) {
+            StreakRankIndex.Entry centre = index.get(around);
+            if (centre == null) {
+                return null;
+            }
+            fromRank = Math.max(1, centre.rank() - limit / 2);
+        }
+        
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        for (StreakRankIndex.Entry entry : index.range(fromRank, limit)) {
+            entries.add(new LeaderboardEntry(entry.rank(), entry.rank(), entry.id(), entry.ownerId(), entry.streak()));
+        }
+        return new LeaderboardResponse(board.name().toLowerCase(Locale.ROOT), index.size(), entries);
+    }
+    
+    /**
+     * The board restricted to the given user and their friends, ranked among themselves.
+     * On the users board every member is listed, including those without a streak.
+     */
+    public LeaderboardResponse getFriendsBoard(Board board, Long userId, Collection<Long> friendIds, int limit) {
+        Set<Long> members = new LinkedHashSet<>();
+        members.add(userId);
+        members.addAll(friendIds);
+        StreakRankIndex index = index(board);
+        
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        if (board == Board.USERS) {
+            for (Long memberId : members) {
+                StreakRankIndex.Entry entry = index.get(memberId);
+                entries.add(entry != null
+                        ? new LeaderboardEntry(null, entry.rank(), memberId, memberId, entry.streak())
+                        : new LeaderboardEntry(null, null, memberId, memberId, 0));
+            }
+            entries.sort(Comparator.comparing(LeaderboardEntry::getStreak).reversed().thenComparing(LeaderboardEntry::getId));
+        } else {
+            for (StreakRankIndex.Entry entry : index.ownedBy(members)) {
+                entries.add(new LeaderboardEntry(null, entry.rank(), entry.id(), entry.ownerId(), entry.streak()));
+            }
+        }
+        
+        List<LeaderboardEntry> page = new ArrayList<>(entries.subList(0, Math.min(limit, entries.size())));
+        for (int i = 0; i < page.size(); i++) {
+            page.get(i).setRank(i + 1);
+        }
+        return new LeaderboardResponse(board.name().toLowerCase(Locale.ROOT), index.size(), page);
+    }
+    
+    /**
+     * Reloads both indexes from the database and swaps them in. Returns false if a rebuild is already running.
+     */
+    public boolean rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            logger.warn("Leaderboard rebuild skipped, a rebuild is already running");
+            return false;
+        }
+        
+        try {
+            long start = System.nanoTime();
+            synchronized (swapLock) {
+                updatesDuringRebuild = new HashMap<>();
+            }
+            
+            StreakRankIndex newUsers;
+            StreakRankIndex newHabits;
+            // Replica lag would drop the latest streaks until the next rebuild
+            ReplicaRouting.forcePrimary();
+            try {
+                newUsers = load((afterId, page) -> userRepository.findStreakRows(afterId, page));
+                newHabits = load((afterId, page) -> habitRepository.findStreakRows(afterId, page));
+            } catch (RuntimeException e) {
+                synchronized (swapLock) {
+                    updatesDuringRebuild = null;
+                }
+                logger.error("Leaderboard rebuild failed, keeping the current indexes", e);
+                return false;
+            } finally {
+                ReplicaRouting.clear();
+            }
+            
+            synchronized (swapLock) {
+                updatesDuringRebuild.getOrDefault(Board.USERS, Map.of()).values()
+                        .forEach(row -> newUsers.put(row.id(), row.userId(), row.streak()));
+                updatesDuringRebuild.getOrDefault(Board.HABITS, Map.of()).values()
+                        .forEach(row -> newHabits.put(row.id(), row.userId(), row.streak()));
+                users = newUsers;
+                habits = newHabits;
+                updatesDuringRebuild = null;
+            }
+            
+            meterRegistry.timer("habit.leaderboard.rebuild").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            logger.info("Leaderboard rebuilt in {} ms: {} users and {} habits with a streak",
+                    (System.nanoTime() - start) / 1_000_000, newUsers.size(), newHabits.size());
+            return true;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+    
+    private StreakRankIndex load(BiFunction<Long, PageRequest, List<StreakRow>> pageLoader) {
+        StreakRankIndex index = new StreakRankIndex();
+        Long afterId = Long.MIN_VALUE;
+        while (true) {
+            List<StreakRow> rows = pageLoader.apply(afterId, PageRequest.of(0, rebuildPageSize));
+            rows.forEach(row -> index.put(row.id(), row.userId(), row.streak()));
+            if (rows.size() < rebuildPageSize) {
+                return index;
+            }
+            afterId = rows.get(rows.size() - 1).id();
+        }
+    }
+    
+    private void apply(Board board, StreakRow row) {
+        synchronized (swapLock) {
+            index(board).put(row.id(), row.userId(), row.streak());
+            if (updatesDuringRebuild != null) {
+                updatesDuringRebuild.computeIfAbsent(board, b -> new HashMap<>()).put(row.id(), row);
+            }
+        }
+    }
+    
+    private StreakRankIndex index(Board board) {
+        return board == Board.USERS ? users : habits;
+    }
+    
+    /**
+     * Runs the update after commit, so rolled back streaks never reach the board; immediately outside a transaction
+     */
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.habittracker.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory ranking of positive streaks, highest first and ties by lowest ID. Backed by a treap whose
+ * nodes carry their subtree size, so updates, "rank of ID" and "entry at rank" are all O(log n).
+ * Entries are also indexed by owning user for the friends board. Thread safe.
+ */
+public class StreakRankIndex {
+    
+    private final Map<Long, Node> byId = new HashMap<>();
+    private final Map<Long, Set<Long>> byOwner = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+    
+    /**
+     * Sets the streak of an entry; a streak of 0 or less removes it
+     */
+    public void put(long id, long ownerId, int streak) {
+        if (streak <= 0) {
+            remove(id);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Node existing = byId.get(id);
+            if (existing != null) {
+                if (existing.streak == streak && existing.ownerId == ownerId) {
+                    return;
+                }
+                unlink(existing);
+            }
+            Node node = new Node(id, ownerId, streak, random.nextInt());
+            Node[] parts = split(root, node);
+            root = merge(merge(parts[0], node), parts[1]);
+            byId.put(id, node);
+            byOwner.computeIfAbsent(ownerId, owner -> new HashSet<>()).add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Node existing = byId.get(id);
+            if (existing != null) {
+                unlink(existing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * The entry with its 1-based rank, or null if the ID has no positive streak
+     */
+    public Entry get(long id) {
+        lock.readLock().lock();
+        try {
+            Node node = byId.get(id);
+            return node != null ? toEntry(node, rankOf(node)) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Up to count entries starting at the given 1-based rank
+     */
+    public List<Entry> range(int fromRank, int count) {
+        lock.readLock().lock();
+        try {
+            List<Entry> entries = new ArrayList<>();
+            int toRank = Math.min(fromRank + count - 1, size(root));
+            for (int rank = Math.max(fromRank, 1); rank <= toRank; rank++) {
+                entries.add(toEntry(select(rank), rank));
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * All entries owned by the given users, each with its global rank, in rank order
+     */
+    public List<Entry> ownedBy(Collection<Long> ownerIds) {
+        lock.readLock().lock();
+        try {
+            List<Entry> entries = new ArrayList<>();
+            for (Long ownerId : ownerIds) {
+                for (Long id : byOwner.getOrDefault(ownerId, Set.of())) {
+                    Node node = byId.get(id);
+                    entries.add(toEntry(node, rankOf(node)));
+                }
+            }
+            entries.sort((a, b) -> Integer.compare(a.rank(), b.rank()));
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void unlink(Node node) {
+        root = delete(root, node);
+        byId.remove(node.id);
+        Set<Long> owned = byOwner.get(node.ownerId);
+        owned.remove(node.id);
+        if (owned.isEmpty()) {
+            byOwner.remove(node.ownerId);
+        }
+    }
+    
+    private int rankOf(Node key) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int c = compare(key, node);
+            if (c < 0) {
+                node = node.left;
+            } else if (c == 0) {
+                return rank + size(node.left) + 1;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        throw new IllegalStateException("Entry " + key.id + " is not in the index");
+    }
+    
+    private Node select(int rank) {
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (rank <= leftSize) {
+                node = node.left;
+            } else if (rank == leftSize + 1) {
+                return node;
+            } else {
+                rank -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+    
+    /**
+     * Splits into the nodes ordered before key and the rest
+     */
+    private static Node[] split(Node node, Node key) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (compare(node, key) < 0) {
+            Node[] parts = split(node.right, key);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+            return parts;
+        }
+        Node[] parts = split(node.left, key);
+        node.left = parts[1];
+        update(node);
+        parts[1] = node;
+        return parts;
+    }
+    
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+    
+    private static Node delete(Node node, Node key) {
+        int c = compare(key, node);
+        if (c == 0) {
+            return merge(node.left, node.right);
+        }
+        if (c < 0) {
+            node.left = delete(node.left, key);
+        } else {
+            node.right = delete(node.right, key);
+        }
+        update(node);
+        return node;
+    }
+    
+    /**
+     * Ranking order: higher streak first, then lower ID
+     */
+    private static int compare(Node a, Node b) {
+        if (a.streak != b.streak) {
+            return Integer.compare(b.streak, a.streak);
+        }
+        return Long.compare(a.id, b.id);
+    }
+    
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+    
+    private static void update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+    
+    private static Entry toEntry(Node node, int rank) {
+        return new Entry(node.id, node.ownerId, node.streak, rank);
+    }
+    
+    public record Entry(long id, long ownerId, int streak, int rank) {
+    }
+    
+    private static class Node {
+        private final long id;
+        private final long ownerId;
+        private final int streak;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+        
+        Node(long id, long ownerId, int streak, int priority) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.streak = streak;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.habittracker.metrics;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * JdbcTemplate that counts the statements it creates; a batch counts as one statement, as in Hibernate
+ */
+public class CountingJdbcTemplate extends JdbcTemplate {
+    
+    public CountingJdbcTemplate(DataSource dataSource) {
+        super(dataSource);
+    }
+    
+    /**
+     * Called once for every statement created on any execute path
+     */
+    @Override
+    protected void applyStatementSettings(Statement stmt) throws SQLException {
+        RequestSqlStatements.increment();
+        super.applyStatementSettings(stmt);
+    }
+}
@@ -0,0 +1,34 @@
+package com.habittracker.metrics;
+
+/**
+ * Per-thread count of the SQL statements issued while serving the current HTTP request.
+ * Counting only happens between {@link #start()} and {@link #stop()}; statements on other threads
+ * (async recomputes, tap flushes, SSE delivery) are not attributed to any request.
+ */
+public final class RequestSqlStatements {
+    
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+    
+    private RequestSqlStatements() {
+    }
+    
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+    
+    public static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+    
+    /**
+     * Ends counting on this thread and returns the count, or -1 if counting was not started
+     */
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count[0] : -1;
+    }
+}
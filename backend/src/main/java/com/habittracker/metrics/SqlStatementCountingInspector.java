@@ -0,0 +1,16 @@
+package com.habittracker.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares (second-level cache hits prepare none).
+ * Registered through hibernate.session_factory.statement_inspector.
+ */
+public class SqlStatementCountingInspector implements StatementInspector {
+    
+    @Override
+    public String inspect(String sql) {
+        RequestSqlStatements.increment();
+        return sql;
+    }
+}
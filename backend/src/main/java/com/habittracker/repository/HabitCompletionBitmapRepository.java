@@ -0,0 +1,35 @@
+package com.habittracker.repository;
+
+import com.habittracker.entity.HabitCompletionBitmap;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HabitCompletionBitmapRepository extends JpaRepository<HabitCompletionBitmap, Long> {
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM HabitCompletionBitmap b WHERE b.habitId = :habitId AND b.year = :year")
+    Optional<HabitCompletionBitmap> findByHabitIdAndYearForUpdate(@Param("habitId") Long habitId, @Param("year") Integer year);
+    
+    @Query("SELECT b FROM HabitCompletionBitmap b WHERE b.habitId = :habitId ORDER BY b.year DESC")
+    List<HabitCompletionBitmap> findByHabitIdOrderByYearDesc(@Param("habitId") Long habitId);
+    
+    @Query("SELECT b FROM HabitCompletionBitmap b WHERE b.habitId = :habitId AND b.year BETWEEN :fromYear AND :toYear ORDER BY b.year")
+    List<HabitCompletionBitmap> findByHabitIdAndYearBetween(@Param("habitId") Long habitId,
+                                                           @Param("fromYear") Integer fromYear,
+                                                           @Param("toYear") Integer toYear);
+    
+    boolean existsByHabitId(Long habitId);
+    
+    @Modifying
+    @Query("DELETE FROM HabitCompletionBitmap b WHERE b.habitId = :habitId")
+    void deleteByHabitId(@Param("habitId") Long habitId);
+}
@@ -0,0 +1,36 @@
+package com.habittracker.repository;
+
+import com.habittracker.entity.HabitCompletionRollup;
+import com.habittracker.entity.HabitCompletionRollup.Granularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface HabitCompletionRollupRepository extends JpaRepository<HabitCompletionRollup, Long>, HabitCompletionRollupRepositoryCustom {
+    
+    @Query("SELECT r FROM HabitCompletionRollup r WHERE r.habitId = :habitId AND r.granularity = :granularity " +
+           "AND r.periodStart BETWEEN :from AND :to ORDER BY r.periodStart")
+    List<HabitCompletionRollup> findPeriods(@Param("habitId") Long habitId, @Param("granularity") Granularity granularity,
+                                            @Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    /**
+     * Habits with completion bitmaps but no rollup rows, e.g. left behind by an interrupted backfill
+     */
+    @Query("SELECT DISTINCT b.habitId FROM HabitCompletionBitmap b " +
+           "WHERE NOT EXISTS (SELECT 1 FROM HabitCompletionRollup r WHERE r.habitId = b.habitId) ORDER BY b.habitId")
+    List<Long> findHabitIdsWithBitmapsButNoRollups();
+    
+    @Modifying
+    @Query("DELETE FROM HabitCompletionRollup r WHERE r.habitId = :habitId")
+    void deleteByHabitId(@Param("habitId") Long habitId);
+    
+    @Modifying
+    @Query("DELETE FROM HabitCompletionRollup r WHERE r.habitId BETWEEN :fromId AND :toId")
+    int deleteByHabitIdRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
@@ -0,0 +1,13 @@
+package com.habittracker.repository;
+
+import com.habittracker.dto.RollupDelta;
+
+import java.util.List;
+
+public interface HabitCompletionRollupRepositoryCustom {
+    
+    /**
+     * Adds each delta to its period's completed-day count, creating missing rows, as one JDBC batch
+     */
+    void applyDeltas(List<RollupDelta> deltas);
+}
@@ -0,0 +1,72 @@
+package com.habittracker.repository;
+
+import com.habittracker.dto.RollupDelta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Native additive upserts for {@link HabitCompletionRollupRepository}. Counts are clamped at zero, so a removal
+ * for a period without a row (e.g. a habit whose rollups are not backfilled yet) does not store a negative count.
+ */
+public class HabitCompletionRollupRepositoryImpl implements HabitCompletionRollupRepositoryCustom {
+    
+    private static final String POSTGRES_APPLY_DELTA =
+            "INSERT INTO habit_completion_rollups (habit_id, granularity, period_start, completed_days, updated_at) " +
+            "VALUES (?, ?, ?, GREATEST(?, 0), ?) " +
+            "ON CONFLICT (habit_id, granularity, period_start) DO UPDATE SET " +
+            "completed_days = GREATEST(habit_completion_rollups.completed_days + ?, 0), " +
+            "updated_at = EXCLUDED.updated_at";
+    
+    private static final String H2_APPLY_DELTA =
+            "MERGE INTO habit_completion_rollups t USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(10)), CAST(? AS DATE), CAST(? AS INT), CAST(? AS TIMESTAMP))) " +
+            "s(habit_id, granularity, period_start, delta, now) " +
+            "ON t.habit_id = s.habit_id AND t.granularity = s.granularity AND t.period_start = s.period_start " +
+            "WHEN MATCHED THEN UPDATE SET completed_days = GREATEST(t.completed_days + s.delta, 0), updated_at = s.now " +
+            "WHEN NOT MATCHED THEN INSERT (habit_id, granularity, period_start, completed_days, updated_at) " +
+            "VALUES (s.habit_id, s.granularity, s.period_start, GREATEST(s.delta, 0), s.now)";
+    
+    // Concurrent batches lock rows in the same order
+    private static final Comparator<RollupDelta> LOCK_ORDER = Comparator.comparing(RollupDelta::getHabitId)
+            .thenComparing(RollupDelta::getGranularity)
+            .thenComparing(RollupDelta::getPeriodStart);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private volatile SqlDialect dialect;
+    
+    @Override
+    public void applyDeltas(List<RollupDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<RollupDelta> ordered = deltas.stream().sorted(LOCK_ORDER).collect(Collectors.toList());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        boolean postgres = dialect() == SqlDialect.POSTGRES;
+        jdbcTemplate.batchUpdate(postgres ? POSTGRES_APPLY_DELTA : H2_APPLY_DELTA, ordered, ordered.size(), (ps, delta) -> {
+            ps.setLong(1, delta.getHabitId());
+            ps.setString(2, delta.getGranularity().name());
+            ps.setDate(3, Date.valueOf(delta.getPeriodStart()));
+            ps.setInt(4, delta.getDelta());
+            ps.setTimestamp(5, now);
+            if (postgres) {
+                // EXCLUDED holds the clamped value, so the raw delta is bound again for the update
+                ps.setInt(6, delta.getDelta());
+            }
+        });
+    }
+    
+    private SqlDialect dialect() {
+        if (dialect == null) {
+            dialect = SqlDialect.detect(jdbcTemplate.getDataSource());
+        }
+        return dialect;
+    }
+}
@@ -1,22 +1,35 @@
 package com.habittracker.repository;
 
+import com.habittracker.dto.HabitLogView;
 import com.habittracker.entity.HabitLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface HabitLogRepository extends JpaRepository<HabitLog, Long> {
+public interface HabitLogRepository extends JpaRepository<HabitLog, Long>, HabitLogRepositoryCustom {
     
     List<HabitLog> findByHabitId(Long habitId);
     
     Optional<HabitLog> findByHabitIdAndDate(Long habitId, LocalDate date);
     
+    @Query(HabitLogView.SELECT + "WHERE hl.habitId = :habitId")
+    List<HabitLogView> findViewsByHabitId(@Param("habitId") Long habitId);
+    
+    @Query(HabitLogView.SELECT + "WHERE hl.habitId = :habitId AND hl.date = :date")
+    Optional<HabitLogView> findViewByHabitIdAndDate(@Param("habitId") Long habitId, @Param("date") LocalDate date);
+    
     @Query("SELECT hl FROM HabitLog hl WHERE hl.habitId = :habitId AND hl.date >= :startDate ORDER BY hl.date DESC")
     List<HabitLog> findByHabitIdAndDateAfter(@Param("habitId") Long habitId, @Param("startDate") LocalDate startDate);
     
@@ -28,4 +41,24 @@ public interface HabitLogRepository extends JpaRepository<HabitLog, Long> {
     
     @Query("SELECT hl FROM HabitLog hl WHERE hl.habitId = :habitId AND hl.isCompleted = true ORDER BY hl.date DESC")
     List<HabitLog> findCompletedByHabitIdOrderByDateDesc(@Param("habitId") Long habitId);
+    
+    @Query("SELECT hl FROM HabitLog hl WHERE hl.habitId IN :habitIds AND hl.date = :date")
+    List<HabitLog> findByHabitIdInAndDate(@Param("habitIds") Collection<Long> habitIds, @Param("date") LocalDate date);
+    
+    // Keyset pages, newest first; served by the (habit_id, date) unique index
+    @Query(HabitLogView.SELECT + "WHERE hl.habitId = :habitId ORDER BY hl.date DESC")
+    List<HabitLogView> findLatestByHabitId(@Param("habitId") Long habitId, Pageable pageable);
+    
+    @Query(HabitLogView.SELECT + "WHERE hl.habitId = :habitId AND hl.date < :before ORDER BY hl.date DESC")
+    List<HabitLogView> findByHabitIdBefore(@Param("habitId") Long habitId, @Param("before") LocalDate before, Pageable pageable);
+    
+    // Must be consumed inside a transaction; rows are fetched from the cursor in batches and never become managed entities
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(HabitLogView.SELECT + "WHERE hl.habitId = :habitId ORDER BY hl.date DESC")
+    Stream<HabitLogView> streamByHabitId(@Param("habitId") Long habitId);
+    
+    // (habitId, date) of every completed day in a habit ID range, for rebuilding derived tables
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT hl.habitId, hl.date FROM HabitLog hl WHERE hl.isCompleted = true AND hl.habitId BETWEEN :fromId AND :toId")
+    Stream<Object[]> streamCompletedDaysByHabitIdRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
@@ -0,0 +1,29 @@
+package com.habittracker.repository;
+
+import com.habittracker.dto.LogIncrement;
+import com.habittracker.entity.HabitLog;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Atomic log writes that bypass the read-modify-write cycle of the entity manager
+ */
+public interface HabitLogRepositoryCustom {
+    
+    /**
+     * Adds one completion to the log of the given day, creating the log if needed,
+     * and marks it completed once the daily goal is reached. One statement, safe under concurrent taps.
+     */
+    HabitLog incrementCompletedCount(Long habitId, LocalDate date, int dailyGoal);
+    
+    /**
+     * Sets the completion count of the given day, creating the log if needed. One statement.
+     */
+    HabitLog upsertCompletedCount(Long habitId, LocalDate date, int completedCount, int dailyGoal);
+    
+    /**
+     * Applies many increments as one JDBC batch of upserts. Does not read the resulting rows back.
+     */
+    void incrementCompletedCounts(List<LogIncrement> increments);
+}
@@ -0,0 +1,154 @@
+package com.habittracker.repository;
+
+import com.habittracker.dto.LogIncrement;
+import com.habittracker.entity.HabitLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Native upserts for {@link HabitLogRepository}. Postgres uses INSERT ... ON CONFLICT ... RETURNING;
+ * H2 (development) uses MERGE wrapped in FINAL TABLE to read back the resulting row.
+ */
+public class HabitLogRepositoryImpl implements HabitLogRepositoryCustom {
+    
+    private static final String RETURNED_COLUMNS = "id, habit_id, date, completed_count, is_completed, created_at, updated_at";
+    
+    private static final String POSTGRES_INCREMENT =
+            "INSERT INTO habit_logs (id, habit_id, date, completed_count, is_completed, created_at, updated_at) " +
+            "VALUES (nextval('habit_logs_seq'), ?, ?, 1, 1 >= ?, ?, ?) " +
+            "ON CONFLICT (habit_id, date) DO UPDATE SET " +
+            "completed_count = habit_logs.completed_count + 1, " +
+            "is_completed = habit_logs.completed_count + 1 >= ?, " +
+            "updated_at = EXCLUDED.updated_at " +
+            "RETURNING " + RETURNED_COLUMNS;
+    
+    private static final String POSTGRES_SET =
+            "INSERT INTO habit_logs (id, habit_id, date, completed_count, is_completed, created_at, updated_at) " +
+            "VALUES (nextval('habit_logs_seq'), ?, ?, ?, ? >= ?, ?, ?) " +
+            "ON CONFLICT (habit_id, date) DO UPDATE SET " +
+            "completed_count = EXCLUDED.completed_count, " +
+            "is_completed = EXCLUDED.is_completed, " +
+            "updated_at = EXCLUDED.updated_at " +
+            "RETURNING " + RETURNED_COLUMNS;
+    
+    private static final String H2_INCREMENT =
+            "SELECT " + RETURNED_COLUMNS + " FROM FINAL TABLE (" +
+            "MERGE INTO habit_logs t USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE))) s(habit_id, log_date) " +
+            "ON t.habit_id = s.habit_id AND t.date = s.log_date " +
+            "WHEN MATCHED THEN UPDATE SET completed_count = t.completed_count + 1, " +
+            "is_completed = t.completed_count + 1 >= ?, updated_at = ? " +
+            "WHEN NOT MATCHED THEN INSERT (id, habit_id, date, completed_count, is_completed, created_at, updated_at) " +
+            "VALUES (NEXT VALUE FOR habit_logs_seq, s.habit_id, s.log_date, 1, 1 >= ?, ?, ?))";
+    
+    private static final String H2_SET =
+            "SELECT " + RETURNED_COLUMNS + " FROM FINAL TABLE (" +
+            "MERGE INTO habit_logs t USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS INT))) s(habit_id, log_date, completed_count) " +
+            "ON t.habit_id = s.habit_id AND t.date = s.log_date " +
+            "WHEN MATCHED THEN UPDATE SET completed_count = s.completed_count, " +
+            "is_completed = s.completed_count >= ?, updated_at = ? " +
+            "WHEN NOT MATCHED THEN INSERT (id, habit_id, date, completed_count, is_completed, created_at, updated_at) " +
+            "VALUES (NEXT VALUE FOR habit_logs_seq, s.habit_id, s.log_date, s.completed_count, s.completed_count >= ?, ?, ?))";
+    
+    private static final String POSTGRES_BATCH_INCREMENT =
+            "INSERT INTO habit_logs (id, habit_id, date, completed_count, is_completed, created_at, updated_at) " +
+            "VALUES (nextval('habit_logs_seq'), ?, ?, ?, ? >= ?, ?, ?) " +
+            "ON CONFLICT (habit_id, date) DO UPDATE SET " +
+            "completed_count = habit_logs.completed_count + EXCLUDED.completed_count, " +
+            "is_completed = habit_logs.completed_count + EXCLUDED.completed_count >= ?, " +
+            "updated_at = EXCLUDED.updated_at";
+    
+    private static final String H2_BATCH_INCREMENT =
+            "MERGE INTO habit_logs t USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS INT))) s(habit_id, log_date, taps) " +
+            "ON t.habit_id = s.habit_id AND t.date = s.log_date " +
+            "WHEN MATCHED THEN UPDATE SET completed_count = t.completed_count + s.taps, " +
+            "is_completed = t.completed_count + s.taps >= ?, updated_at = ? " +
+            "WHEN NOT MATCHED THEN INSERT (id, habit_id, date, completed_count, is_completed, created_at, updated_at) " +
+            "VALUES (NEXT VALUE FOR habit_logs_seq, s.habit_id, s.log_date, s.taps, s.taps >= ?, ?, ?)";
+    
+    private static final RowMapper<HabitLog> HABIT_LOG_ROW_MAPPER = (rs, rowNum) -> {
+        HabitLog log = new HabitLog();
+        log.setId(rs.getLong("id"));
+        log.setHabitId(rs.getLong("habit_id"));
+        log.setDate(rs.getDate("date").toLocalDate());
+        log.setCompletedCount(rs.getInt("completed_count"));
+        log.setIsCompleted(rs.getBoolean("is_completed"));
+        log.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        log.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        return log;
+    };
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private volatile SqlDialect dialect;
+    
+    @Override
+    public HabitLog incrementCompletedCount(Long habitId, LocalDate date, int dailyGoal) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (dialect() == SqlDialect.POSTGRES) {
+            return upsert(POSTGRES_INCREMENT, habitId, date, dailyGoal, now, now, dailyGoal);
+        }
+        return upsert(H2_INCREMENT, habitId, date, dailyGoal, now, dailyGoal, now, now);
+    }
+    
+    @Override
+    public HabitLog upsertCompletedCount(Long habitId, LocalDate date, int completedCount, int dailyGoal) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (dialect() == SqlDialect.POSTGRES) {
+            return upsert(POSTGRES_SET, habitId, date, completedCount, completedCount, dailyGoal, now, now);
+        }
+        return upsert(H2_SET, habitId, date, completedCount, dailyGoal, now, dailyGoal, now, now);
+    }
+    
+    @Override
+    public void incrementCompletedCounts(List<LogIncrement> increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        boolean postgres = dialect() == SqlDialect.POSTGRES;
+        jdbcTemplate.batchUpdate(postgres ? POSTGRES_BATCH_INCREMENT : H2_BATCH_INCREMENT, increments, increments.size(),
+                (ps, increment) -> {
+                    ps.setLong(1, increment.getHabitId());
+                    ps.setDate(2, Date.valueOf(increment.getDate()));
+                    ps.setInt(3, increment.getCount());
+                    if (postgres) {
+                        ps.setInt(4, increment.getCount());
+                        ps.setInt(5, increment.getDailyGoal());
+                        ps.setTimestamp(6, now);
+                        ps.setTimestamp(7, now);
+                        ps.setInt(8, increment.getDailyGoal());
+                    } else {
+                        ps.setInt(4, increment.getDailyGoal());
+                        ps.setTimestamp(5, now);
+                        ps.setInt(6, increment.getDailyGoal());
+                        ps.setTimestamp(7, now);
+                        ps.setTimestamp(8, now);
+                    }
+                });
+    }
+    
+    private HabitLog upsert(String sql, Object... args) {
+        try {
+            return jdbcTemplate.queryForObject(sql, HABIT_LOG_ROW_MAPPER, args);
+        } catch (DuplicateKeyException e) {
+            // H2's MERGE is not atomic against a concurrent first insert; the row exists now, so retry once
+            return jdbcTemplate.queryForObject(sql, HABIT_LOG_ROW_MAPPER, args);
+        }
+    }
+    
+    private SqlDialect dialect() {
+        if (dialect == null) {
+            dialect = SqlDialect.detect(jdbcTemplate.getDataSource());
+        }
+        return dialect;
+    }
+}
@@ -1,26 +1,99 @@
 package com.habittracker.repository;
 
+import com.habittracker.dto.DashboardVersion;
+import com.habittracker.dto.HabitDashboardRow;
+import com.habittracker.dto.HabitView;
+import com.habittracker.dto.StreakRow;
 import com.habittracker.entity.Habit;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface HabitRepository extends JpaRepository<Habit, Long> {
     
     List<Habit> findByUserId(Long userId);
     
-    @Query("SELECT h FROM Habit h WHERE h.userId = :userId ORDER BY h.createdAt DESC")
-    List<Habit> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
+    @Query(HabitView.SELECT + "WHERE h.id = :id")
+    Optional<HabitView> findViewById(@Param("id") Long id);
+    
+    /**
+     * The whole dashboard in one query: the user's habits, newest first, each joined with today's log
+     */
+    @Query("SELECT new com.habittracker.dto.HabitDashboardRow(h.id, h.name, h.description, h.dailyGoal, h.streakCount, " +
+           "h.lastCompletedDate, h.userId, h.createdAt, h.updatedAt, hl.completedCount, hl.isCompleted) " +
+           "FROM Habit h LEFT JOIN HabitLog hl ON hl.habitId = h.id AND hl.date = :today " +
+           "WHERE h.userId = :userId ORDER BY h.createdAt DESC")
+    List<HabitDashboardRow> findDashboardRows(@Param("userId") Long userId, @Param("today") LocalDate today);
+    
+    /**
+     * Version of the dashboard in one aggregate over the same join as {@link #findDashboardRows}
+     */
+    @Query("SELECT new com.habittracker.dto.DashboardVersion(COUNT(h.id), MAX(h.updatedAt), SUM(h.streakCount), " +
+           "COUNT(hl.id), SUM(hl.completedCount)) " +
+           "FROM Habit h LEFT JOIN HabitLog hl ON hl.habitId = h.id AND hl.date = :today " +
+           "WHERE h.userId = :userId")
+    DashboardVersion findDashboardVersion(@Param("userId") Long userId, @Param("today") LocalDate today);
+    
+    /**
+     * Loads the habit with a row lock, so a read-modify-write of derived fields cannot overwrite a concurrent tap
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM Habit h WHERE h.id = :id")
+    Optional<Habit> findByIdForUpdate(@Param("id") Long id);
+    
+    /**
+     * Next page of habits with a positive streak, in ID order after afterId
+     */
+    @Query("SELECT new com.habittracker.dto.StreakRow(h.id, h.userId, h.streakCount) FROM Habit h " +
+           "WHERE h.streakCount > 0 AND h.id > :afterId ORDER BY h.id")
+    List<StreakRow> findStreakRows(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT h.userId FROM Habit h WHERE h.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
     
     @Query("SELECT COUNT(h) FROM Habit h WHERE h.userId = :userId")
     Long countByUserId(@Param("userId") Long userId);
     
+    @Query("SELECT MIN(h.id) FROM Habit h")
+    Long findMinId();
+    
+    @Query("SELECT MAX(h.id) FROM Habit h")
+    Long findMaxId();
+    
+    /**
+     * Habits of a chunk of users whose streak the day rollover is about to expire, locked so a tap cannot
+     * restart the streak before the reset
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.habittracker.dto.StreakRow(h.id, h.userId, h.streakCount) FROM Habit h " +
+           "WHERE h.userId IN :userIds AND h.streakCount > 0 " +
+           "AND (h.lastCompletedDate IS NULL OR h.lastCompletedDate < :yesterday)")
+    List<StreakRow> findExpiringStreaksForUpdate(@Param("userIds") Collection<Long> userIds,
+                                                 @Param("yesterday") LocalDate yesterday);
+    
+    /**
+     * Day rollover for the habits of a chunk of users: clears today's progress and expires streaks whose
+     * last completed day is before yesterday. Rows that are already reset are not touched.
+     */
     @Modifying
-    @Query("DELETE FROM Habit h WHERE h.userId = :userId")
-    void deleteByUserId(@Param("userId") Long userId);
+    @Query("UPDATE Habit h SET h.progressPercent = 0.0, " +
+           "h.streakCount = CASE WHEN h.lastCompletedDate IS NULL OR h.lastCompletedDate < :yesterday THEN 0 ELSE h.streakCount END, " +
+           "h.updatedAt = :now " +
+           "WHERE h.userId IN :userIds " +
+           "AND (COALESCE(h.progressPercent, 0.0) <> 0.0 " +
+           "OR (COALESCE(h.streakCount, 0) <> 0 AND (h.lastCompletedDate IS NULL OR h.lastCompletedDate < :yesterday)))")
+    int resetDailyStateForUsers(@Param("userIds") Collection<Long> userIds,
+                                @Param("yesterday") LocalDate yesterday, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,37 @@
+package com.habittracker.repository;
+
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Databases the hand-written SQL in the custom repository fragments is written for.
+ */
+public enum SqlDialect {
+    POSTGRES,
+    H2;
+    
+    /**
+     * Reads the product name on the caller's transactional connection if there is one. Taking a second pool
+     * connection while holding one would stall a burst of first writes once the pool is exhausted.
+     */
+    public static SqlDialect detect(DataSource dataSource) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            String productName = connection.getMetaData().getDatabaseProductName();
+            if ("PostgreSQL".equalsIgnoreCase(productName)) {
+                return POSTGRES;
+            }
+            if ("H2".equalsIgnoreCase(productName)) {
+                return H2;
+            }
+            throw new IllegalStateException("Unsupported database: " + productName);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not detect database type", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
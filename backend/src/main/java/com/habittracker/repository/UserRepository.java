@@ -1,14 +1,87 @@
 package com.habittracker.repository;
 
+import com.habittracker.dto.StreakRow;
 import com.habittracker.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     
     @Override
     Optional<User> findById(Long id);
+    
+    @Query("SELECT u.totalStreak FROM User u WHERE u.id = :id")
+    Optional<Integer> findTotalStreakById(@Param("id") Long id);
+    
+    /**
+     * Next page of users with a positive streak, in ID order after afterId
+     */
+    @Query("SELECT new com.habittracker.dto.StreakRow(u.id, u.id, u.totalStreak) FROM User u " +
+           "WHERE u.totalStreak > 0 AND u.id > :afterId ORDER BY u.id")
+    List<StreakRow> findStreakRows(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT u.timeZone FROM User u WHERE u.id = :id")
+    Optional<String> findTimeZoneById(@Param("id") Long id);
+    
+    @Query("SELECT DISTINCT u.timeZone FROM User u WHERE u.timeZone IS NOT NULL")
+    List<String> findDistinctTimeZones();
+    
+    /**
+     * Next page of user IDs in the given zones (and without a zone, if includeUnset), in ID order after afterId
+     */
+    @Query("SELECT u.id FROM User u WHERE (u.timeZone IN :zones OR (:includeUnset = TRUE AND u.timeZone IS NULL)) " +
+           "AND u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsByTimeZones(@Param("zones") Collection<String> zones, @Param("includeUnset") boolean includeUnset,
+                                  @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE User u SET u.timeZone = :timeZone, u.updatedAt = :now WHERE u.id = :id")
+    int updateTimeZone(@Param("id") Long id, @Param("timeZone") String timeZone, @Param("now") LocalDateTime now);
+    
+    @Query("SELECT MIN(u.id) FROM User u")
+    Long findMinId();
+    
+    @Query("SELECT MAX(u.id) FROM User u")
+    Long findMaxId();
+    
+    /**
+     * Records activity on the given day in one statement: continues the streak if the last activity was
+     * the day before, restarts it otherwise. No-op (returns 0) if the user was already active that day.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.totalStreak = CASE WHEN u.lastActivityDate = :yesterday THEN u.totalStreak + 1 ELSE 1 END, " +
+           "u.lastActivityDate = :today, u.updatedAt = :now " +
+           "WHERE u.id = :id AND (u.lastActivityDate IS NULL OR u.lastActivityDate < :today)")
+    int recordActivity(@Param("id") Long id, @Param("today") LocalDate today,
+                       @Param("yesterday") LocalDate yesterday, @Param("now") LocalDateTime now);
+    
+    /**
+     * Users of a chunk whose streak the day rollover is about to expire, locked so their activity cannot
+     * restart the streak before the reset
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids AND u.totalStreak > 0 AND u.lastActivityDate < :cutoff")
+    List<Long> findIdsWithExpiringStreaksForUpdate(@Param("ids") Collection<Long> ids, @Param("cutoff") LocalDate cutoff);
+    
+    /**
+     * Day rollover for a chunk of users: resets the streak of users without activity since before the cutoff
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.totalStreak = 0, u.lastActivityDate = NULL, u.updatedAt = :now " +
+           "WHERE u.id IN :ids AND u.lastActivityDate < :cutoff")
+    int expireStreaksForUsers(@Param("ids") Collection<Long> ids,
+                              @Param("cutoff") LocalDate cutoff, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,13 @@
+package com.habittracker.repository;
+
+/**
+ * Race-free user creation
+ */
+public interface UserRepositoryCustom {
+    
+    /**
+     * Inserts an empty user with the given ID unless one exists. One statement, safe when
+     * two first requests of the same user arrive at once.
+     */
+    void insertIfAbsent(Long userId);
+}
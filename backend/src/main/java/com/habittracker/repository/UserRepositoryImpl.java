@@ -0,0 +1,49 @@
+package com.habittracker.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Native insert-if-absent for {@link UserRepository}. Postgres uses INSERT ... ON CONFLICT DO NOTHING;
+ * H2 (development) uses MERGE.
+ */
+public class UserRepositoryImpl implements UserRepositoryCustom {
+    
+    private static final String POSTGRES_INSERT_IF_ABSENT =
+            "INSERT INTO users (id, total_streak, created_at, updated_at) VALUES (?, 0, ?, ?) " +
+            "ON CONFLICT (id) DO NOTHING";
+    
+    private static final String H2_INSERT_IF_ABSENT =
+            "MERGE INTO users t USING (VALUES (CAST(? AS BIGINT))) s(id) ON t.id = s.id " +
+            "WHEN NOT MATCHED THEN INSERT (id, total_streak, created_at, updated_at) VALUES (s.id, 0, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private volatile SqlDialect dialect;
+    
+    @Override
+    public void insertIfAbsent(Long userId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (dialect() == SqlDialect.POSTGRES) {
+            jdbcTemplate.update(POSTGRES_INSERT_IF_ABSENT, userId, now, now);
+            return;
+        }
+        try {
+            jdbcTemplate.update(H2_INSERT_IF_ABSENT, userId, now, now);
+        } catch (DuplicateKeyException e) {
+            // H2's MERGE is not atomic against a concurrent first insert; the user exists now, which is all we need
+        }
+    }
+    
+    private SqlDialect dialect() {
+        if (dialect == null) {
+            dialect = SqlDialect.detect(jdbcTemplate.getDataSource());
+        }
+        return dialect;
+    }
+}
@@ -0,0 +1,9 @@
+package com.habittracker.repository;
+
+import com.habittracker.entity.ZoneRollover;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ZoneRolloverRepository extends JpaRepository<ZoneRollover, String> {
+}
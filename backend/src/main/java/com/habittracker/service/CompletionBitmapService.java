@@ -0,0 +1,241 @@
+package com.habittracker.service;
+
+import com.habittracker.entity.HabitCompletionBitmap;
+import com.habittracker.entity.HabitLog;
+import com.habittracker.repository.HabitCompletionBitmapRepository;
+import com.habittracker.repository.HabitLogRepository;
+import com.habittracker.repository.HabitRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maintains per-habit completion bitmaps (one row per habit and year, one bit per day)
+ * and answers history questions - streaks, completion rates, heatmaps - with bit operations
+ * instead of loading {@link HabitLog} entities. Every bit change is also applied to the weekly and
+ * monthly rollups through {@link RollupService}.
+ */
+@Service
+@Transactional
+public class CompletionBitmapService {
+    
+    @Autowired
+    private HabitCompletionBitmapRepository bitmapRepository;
+    
+    @Autowired
+    private HabitLogRepository habitLogRepository;
+    
+    @Autowired
+    private HabitRepository habitRepository;
+    
+    @Autowired
+    private RollupService rollupService;
+    
+    /**
+     * Sets or clears the bit for the given day and returns whether it changed. The year row is
+     * locked so concurrent writers for the same habit cannot overwrite each other's bits.
+     */
+    public boolean setCompleted(Long habitId, LocalDate date, boolean completed) {
+        HabitCompletionBitmap bitmap = lockYear(habitId, date.getYear());
+        
+        BitSet bits = BitSet.valueOf(bitmap.getBits());
+        int index = date.getDayOfYear() - 1;
+        if (bits.get(index) == completed) {
+            return false;
+        }
+        bits.set(index, completed);
+        bitmap.setBits(bits.toByteArray());
+        bitmapRepository.save(bitmap);
+        rollupService.recordCompletionChanges(habitId, Map.of(date, completed));
+        return true;
+    }
+    
+    /**
+     * Applies several days at once, locking and writing each year row once. Returns whether any bit changed.
+     */
+    public boolean setCompletedDays(Long habitId, Map<LocalDate, Boolean> completedByDate) {
+        Map<Integer, List<LocalDate>> datesByYear = new HashMap<>();
+        for (LocalDate date : completedByDate.keySet()) {
+            datesByYear.computeIfAbsent(date.getYear(), year -> new ArrayList<>()).add(date);
+        }
+        
+        Map<LocalDate, Boolean> changed = new HashMap<>();
+        for (Map.Entry<Integer, List<LocalDate>> yearDates : datesByYear.entrySet()) {
+            HabitCompletionBitmap bitmap = lockYear(habitId, yearDates.getKey());
+            BitSet bits = BitSet.valueOf(bitmap.getBits());
+            boolean yearChanged = false;
+            for (LocalDate date : yearDates.getValue()) {
+                int index = date.getDayOfYear() - 1;
+                boolean completed = completedByDate.get(date);
+                if (bits.get(index) != completed) {
+                    bits.set(index, completed);
+                    changed.put(date, completed);
+                    yearChanged = true;
+                }
+            }
+            if (yearChanged) {
+                bitmap.setBits(bits.toByteArray());
+                bitmapRepository.save(bitmap);
+            }
+        }
+        if (changed.isEmpty()) {
+            return false;
+        }
+        rollupService.recordCompletionChanges(habitId, changed);
+        return true;
+    }
+    
+    /**
+     * Most recent completed day and the length of the run of consecutive completed days ending on it.
+     * Loads the habit's year rows once (a few dozen bytes per year) and walks them backwards.
+     */
+    @Transactional(readOnly = true)
+    public StreakInfo getLatestStreak(Long habitId) {
+        return latestStreak(bitmapRepository.findByHabitIdOrderByYearDesc(habitId));
+    }
+    
+    /**
+     * Streak over year bitmaps ordered newest first, using previousClearBit to skip whole runs at once.
+     */
+    public static StreakInfo latestStreak(List<HabitCompletionBitmap> yearsDescending) {
+        LocalDate lastCompleted = null;
+        int streak = 0;
+        int expectedYear = 0;
+        int index = -1;
+        for (HabitCompletionBitmap bitmap : yearsDescending) {
+            BitSet bits = BitSet.valueOf(bitmap.getBits());
+            if (lastCompleted == null) {
+                if (bits.isEmpty()) {
+                    continue;
+                }
+                index = bits.length() - 1;
+                lastCompleted = Year.of(bitmap.getYear()).atDay(index + 1);
+            } else if (bitmap.getYear() != expectedYear) {
+                // A whole year without a row breaks the run
+                break;
+            } else {
+                index = Year.of(bitmap.getYear()).length() - 1;
+            }
+            
+            int firstClear = bits.previousClearBit(index);
+            streak += index - firstClear;
+            if (firstClear >= 0) {
+                break;
+            }
+            expectedYear = bitmap.getYear() - 1;
+        }
+        
+        return new StreakInfo(lastCompleted, streak);
+    }
+    
+    /**
+     * Completed days in the inclusive range, as one bit set where bit 0 is {@code from}.
+     */
+    @Transactional(readOnly = true)
+    public BitSet getCompletedDays(Long habitId, LocalDate from, LocalDate to) {
+        BitSet result = new BitSet();
+        for (HabitCompletionBitmap bitmap : bitmapRepository.findByHabitIdAndYearBetween(habitId, from.getYear(), to.getYear())) {
+            BitSet bits = BitSet.valueOf(bitmap.getBits());
+            Year year = Year.of(bitmap.getYear());
+            LocalDate yearStart = year.atDay(1);
+            LocalDate rangeStart = from.isAfter(yearStart) ? from : yearStart;
+            LocalDate yearEnd = year.atDay(year.length());
+            LocalDate rangeEnd = to.isBefore(yearEnd) ? to : yearEnd;
+            
+            int offset = (int) (rangeStart.toEpochDay() - from.toEpochDay());
+            int startIndex = rangeStart.getDayOfYear() - 1;
+            int endIndex = rangeEnd.getDayOfYear();
+            for (int i = bits.nextSetBit(startIndex); i >= 0 && i < endIndex; i = bits.nextSetBit(i + 1)) {
+                result.set(offset + i - startIndex);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Backfills the habit's bitmaps from its logs unless it already has some. Concurrent first writers
+     * are serialized on the habit row, so only one of them rebuilds. Returns whether this call rebuilt.
+     */
+    public boolean ensureBitmaps(Long habitId) {
+        if (bitmapRepository.existsByHabitId(habitId)) {
+            return false;
+        }
+        habitRepository.findByIdForUpdate(habitId);
+        if (bitmapRepository.existsByHabitId(habitId)) {
+            return false;
+        }
+        rebuildFromLogs(habitId);
+        return true;
+    }
+    
+    /**
+     * Rebuilds the bitmaps of a habit from its completed logs, e.g. for history written before bitmaps existed.
+     * Holds the habit row lock, so a concurrent rebuild or first insert waits instead of hitting the unique key.
+     */
+    public void rebuildFromLogs(Long habitId) {
+        habitRepository.findByIdForUpdate(habitId);
+        bitmapRepository.deleteByHabitId(habitId);
+        
+        Map<Integer, BitSet> yearBits = new HashMap<>();
+        for (HabitLog log : habitLogRepository.findCompletedByHabitIdOrderByDateDesc(habitId)) {
+            yearBits.computeIfAbsent(log.getDate().getYear(), year -> new BitSet())
+                    .set(log.getDate().getDayOfYear() - 1);
+        }
+        
+        List<HabitCompletionBitmap> bitmaps = new ArrayList<>();
+        yearBits.forEach((year, bits) -> {
+            HabitCompletionBitmap bitmap = new HabitCompletionBitmap(habitId, year);
+            bitmap.setBits(bits.toByteArray());
+            bitmaps.add(bitmap);
+        });
+        bitmapRepository.saveAll(bitmaps);
+        rollupService.rebuildForHabit(habitId);
+    }
+    
+    /**
+     * Locks the habit's row for the year. Without a row there is nothing to lock, so the insert of a
+     * new year row is serialized on the habit row instead.
+     */
+    private HabitCompletionBitmap lockYear(Long habitId, int year) {
+        return bitmapRepository.findByHabitIdAndYearForUpdate(habitId, year).orElseGet(() -> {
+            habitRepository.findByIdForUpdate(habitId);
+            return bitmapRepository.findByHabitIdAndYearForUpdate(habitId, year)
+                    .orElseGet(() -> new HabitCompletionBitmap(habitId, year));
+        });
+    }
+    
+    public void deleteForHabit(Long habitId) {
+        bitmapRepository.deleteByHabitId(habitId);
+        rollupService.deleteForHabit(habitId);
+    }
+    
+    /**
+     * Last completed day of a habit and the run length ending on it
+     */
+    public static class StreakInfo {
+        private final LocalDate lastCompletedDate;
+        private final int streak;
+        
+        public StreakInfo(LocalDate lastCompletedDate, int streak) {
+            this.lastCompletedDate = lastCompletedDate;
+            this.streak = streak;
+        }
+        
+        public Optional<LocalDate> getLastCompletedDate() {
+            return Optional.ofNullable(lastCompletedDate);
+        }
+        
+        public int getStreak() {
+            return streak;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.habittracker.service;
+
+import com.habittracker.config.WorkerThreadFactory;
+import com.habittracker.datasource.ReplicaRouting;
+import com.habittracker.dto.RolloverReport;
+import com.habittracker.dto.StreakRow;
+import com.habittracker.entity.ZoneRollover;
+import com.habittracker.leaderboard.LeaderboardService;
+import com.habittracker.repository.HabitRepository;
+import com.habittracker.repository.UserRepository;
+import com.habittracker.repository.ZoneRolloverRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-side day rollover, sharded by time zone. A frequent tick finds the zones whose local day has
+ * started since their last rollover and processes them bucketed by current UTC offset, so the work is
+ * spread over the day instead of one global midnight. Within a bucket, users are processed in ID-ordered
+ * chunks with one set-based UPDATE per chunk and table, chunks run in parallel, and habits are never
+ * deleted or recreated. Each zone's last rolled over day is stored in zone_rollovers, so a restart
+ * picks up the zones that became due while the server was down.
+ */
+@Service
+public class DayRolloverService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DayRolloverService.class);
+    
+    @Autowired
+    private HabitRepository habitRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ZoneRolloverRepository zoneRolloverRepository;
+    
+    @Autowired
+    private UserClock userClock;
+    
+    @Autowired
+    private LeaderboardService leaderboardService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private WorkerThreadFactory workerThreadFactory;
+    
+    @Value("${habittracker.rollover.chunk-size:1000}")
+    private int chunkSize;
+    
+    @Value("${habittracker.rollover.parallelism:0}")
+    private int parallelism;
+    
+    private ExecutorService chunkExecutor;
+    private TransactionTemplate chunkTransaction;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile RolloverReport lastReport;
+    
+    @PostConstruct
+    void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        // Fixed size even on virtual threads, so a rollover never holds more than this many pool connections
+        chunkExecutor = Executors.newFixedThreadPool(threads, workerThreadFactory.create("day-rollover-"));
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        chunkExecutor.shutdownNow();
+    }
+    
+    @Scheduled(cron = "${habittracker.rollover.cron:0 */15 * * * *}")
+    public void scheduledRollover() {
+        runDueRollovers();
+    }
+    
+    /**
+     * Rolls over every zone whose local day has started since it was last rolled over.
+     * Returns one report per processed offset bucket, or null if a rollover is already running.
+     */
+    public List<RolloverReport> runDueRollovers() {
+        return run(false);
+    }
+    
+    /**
+     * Rolls over every known zone as of its current local day, whether due or not
+     */
+    public List<RolloverReport> runAllRollovers() {
+        return run(true);
+    }
+    
+    public RolloverReport getLastReport() {
+        return lastReport;
+    }
+    
+    private List<RolloverReport> run(boolean force) {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Day rollover skipped, a rollover is already running");
+            return null;
+        }
+        
+        try {
+            Instant now = Instant.now();
+            Map<String, LocalDate> rolledOverThrough = loadRolledOverThrough();
+            // Zones sharing an offset share their local date; ZoneOffset orders easternmost (earliest midnight) first
+            Map<ZoneOffset, List<String>> buckets = new TreeMap<>();
+            for (ZoneId zone : knownZones()) {
+                LocalDate today = LocalDate.ofInstant(now, zone);
+                LocalDate last = rolledOverThrough.get(zone.getId());
+                if (force || last == null || last.isBefore(today)) {
+                    buckets.computeIfAbsent(zone.getRules().getOffset(now), offset -> new ArrayList<>()).add(zone.getId());
+                }
+            }
+            
+            List<RolloverReport> reports = new ArrayList<>();
+            buckets.forEach((offset, zoneIds) -> reports.add(runBucket(offset, zoneIds, LocalDate.ofInstant(now, offset))));
+            return reports;
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    /**
+     * Zone ID -> last local day that zone was rolled over for
+     */
+    private Map<String, LocalDate> loadRolledOverThrough() {
+        // A lagging replica would repeat the last rollovers
+        ReplicaRouting.forcePrimary();
+        try {
+            Map<String, LocalDate> rolledOverThrough = new HashMap<>();
+            zoneRolloverRepository.findAll()
+                    .forEach(zone -> rolledOverThrough.put(zone.getZoneId(), zone.getRolledOverThrough()));
+            return rolledOverThrough;
+        } finally {
+            ReplicaRouting.clear();
+        }
+    }
+    
+    /**
+     * Zones of all users plus the default zone, which also covers users without a zone
+     */
+    private Set<ZoneId> knownZones() {
+        Set<ZoneId> zones = new LinkedHashSet<>();
+        zones.add(userClock.getDefaultZone());
+        for (String zoneId : userRepository.findDistinctTimeZones()) {
+            try {
+                zones.add(ZoneId.of(zoneId));
+            } catch (DateTimeException e) {
+                logger.warn("Ignoring unknown time zone {} in day rollover", zoneId);
+            }
+        }
+        return zones;
+    }
+    
+    private RolloverReport runBucket(ZoneOffset offset, List<String> zoneIds, LocalDate today) {
+        long start = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDate yesterday = today.minusDays(1);
+        boolean includeUnset = zoneIds.contains(userClock.getDefaultZone().getId());
+        
+        List<Future<Integer>> habitChunks = new ArrayList<>();
+        List<Future<Integer>> userChunks = new ArrayList<>();
+        Long afterId = Long.MIN_VALUE;
+        while (true) {
+            List<Long> userIds = userRepository.findIdsByTimeZones(zoneIds, includeUnset, afterId, PageRequest.of(0, chunkSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            // Each chunk commits on its own so a failure only affects those users
+            habitChunks.add(chunkExecutor.submit(() -> chunkTransaction.execute(status -> resetHabits(userIds, yesterday))));
+            userChunks.add(chunkExecutor.submit(() -> chunkTransaction.execute(status -> expireUserStreaks(userIds, yesterday))));
+            afterId = userIds.get(userIds.size() - 1);
+            if (userIds.size() < chunkSize) {
+                break;
+            }
+        }
+        
+        int chunkCount = habitChunks.size() + userChunks.size();
+        AtomicInteger failedChunks = new AtomicInteger();
+        AtomicInteger completedChunks = new AtomicInteger();
+        long habitsUpdated = awaitChunks(habitChunks, chunkCount, completedChunks, failedChunks);
+        long usersUpdated = awaitChunks(userChunks, chunkCount, completedChunks, failedChunks);
+        
+        if (failedChunks.get() == 0) {
+            // Failed buckets stay due and are retried on the next tick; the updates are idempotent
+            zoneRolloverRepository.saveAll(zoneIds.stream().map(zoneId -> new ZoneRollover(zoneId, today)).toList());
+        }
+        
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        RolloverReport report = new RolloverReport(today, offset.getId(), zoneIds, startedAt, durationMillis, chunkCount,
+                failedChunks.get(), habitsUpdated, usersUpdated);
+        lastReport = report;
+        logger.info("Day rollover for {} at UTC{} ({} zones) finished in {} ms: {} chunks ({} failed), {} habits and {} users updated",
+                today, offset.getId(), zoneIds.size(), durationMillis, chunkCount, failedChunks.get(), habitsUpdated, usersUpdated);
+        return report;
+    }
+    
+    /**
+     * One habit chunk; the expired streaks leave the leaderboard once the chunk commits
+     */
+    private int resetHabits(List<Long> userIds, LocalDate yesterday) {
+        List<StreakRow> expiring = habitRepository.findExpiringStreaksForUpdate(userIds, yesterday);
+        int updated = habitRepository.resetDailyStateForUsers(userIds, yesterday, LocalDateTime.now());
+        expiring.forEach(row -> leaderboardService.removeHabit(row.id(), row.userId()));
+        return updated;
+    }
+    
+    /**
+     * One user chunk; the expired streaks leave the leaderboard once the chunk commits
+     */
+    private int expireUserStreaks(List<Long> userIds, LocalDate yesterday) {
+        List<Long> expiring = userRepository.findIdsWithExpiringStreaksForUpdate(userIds, yesterday);
+        int updated = userRepository.expireStreaksForUsers(userIds, yesterday, LocalDateTime.now());
+        expiring.forEach(userId -> leaderboardService.recordUserStreak(userId, 0));
+        return updated;
+    }
+    
+    private long awaitChunks(List<Future<Integer>> chunks, int chunkCount, AtomicInteger completedChunks, AtomicInteger failedChunks) {
+        long updated = 0;
+        for (Future<Integer> chunk : chunks) {
+            try {
+                updated += chunk.get();
+            } catch (ExecutionException e) {
+                failedChunks.incrementAndGet();
+                logger.error("Day rollover chunk failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedChunks.incrementAndGet();
+                logger.error("Interrupted while waiting for day rollover chunk");
+            }
+            logger.debug("Day rollover progress: {}/{} chunks", completedChunks.incrementAndGet(), chunkCount);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,102 @@
+package com.habittracker.service;
+
+import com.habittracker.config.WorkerThreadFactory;
+import com.habittracker.event.HabitChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recomputes a habit's stored derived fields ({@link HabitService#updateHabitProgress}) after its changes
+ * commit, off the request thread. A habit already waiting for a recompute is not queued again, so a burst
+ * of taps costs one recompute; a change that commits while the recompute runs queues one more.
+ * Coalesced taps are recomputed once the flush that writes them commits, never before.
+ */
+@Component
+public class DerivedFieldRecomputer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DerivedFieldRecomputer.class);
+    
+    @Autowired
+    private HabitService habitService;
+    
+    @Autowired
+    private WorkerThreadFactory workerThreadFactory;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${habittracker.recompute.threads:2}")
+    private int threads;
+    
+    @Value("${habittracker.recompute.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor executor;
+    
+    @PostConstruct
+    void init() {
+        // Bounded threads and queue: at most this many connections, and queued habits are distinct
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), workerThreadFactory.create("habit-recompute-"));
+        Gauge.builder("habit.recompute.pending", pending, Set::size).register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onHabitChanged(HabitChangedEvent event) {
+        if (!event.isDeleted()) {
+            requestRecompute(event.getHabitId());
+        }
+    }
+    
+    public void requestRecompute(Long habitId) {
+        if (!pending.add(habitId)) {
+            meterRegistry.counter("habit.recompute", "outcome", "coalesced").increment();
+            return;
+        }
+        try {
+            executor.execute(() -> recompute(habitId));
+        } catch (RejectedExecutionException e) {
+            // Stored fields stay stale until the habit's next change or the day rollover; reads compute their own
+            pending.remove(habitId);
+            meterRegistry.counter("habit.recompute", "outcome", "rejected").increment();
+        }
+    }
+    
+    private void recompute(Long habitId) {
+        // Removed before running, so changes committed from here on queue another pass
+        pending.remove(habitId);
+        long start = System.nanoTime();
+        try {
+            habitService.updateHabitProgress(habitId);
+            meterRegistry.counter("habit.recompute", "outcome", "success").increment();
+        } catch (RuntimeException e) {
+            meterRegistry.counter("habit.recompute", "outcome", "error").increment();
+            logger.warn("Failed to recompute derived fields of habit {}", habitId, e);
+        } finally {
+            meterRegistry.timer("habit.recompute.duration").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
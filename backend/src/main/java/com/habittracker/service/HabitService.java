@@ -1,20 +1,61 @@
 package com.habittracker.service;
 
+import com.habittracker.cache.CacheStats;
+import com.habittracker.cache.TtlCache;
+import com.habittracker.datasource.ReplicaConsistency;
+import com.habittracker.dto.DashboardVersion;
+import com.habittracker.dto.HabitDashboardRow;
+import com.habittracker.dto.HabitLogView;
+import com.habittracker.dto.HabitResponse;
+import com.habittracker.dto.HabitStatsResponse;
+import com.habittracker.dto.HabitView;
+import com.habittracker.dto.HeatmapResponse;
+import com.habittracker.dto.LogIncrement;
+import com.habittracker.dto.LogSyncEntry;
+import com.habittracker.dto.LogSyncResult;
+import com.habittracker.dto.VersionedDashboard;
 import com.habittracker.entity.Habit;
+import com.habittracker.event.HabitChangedEvent;
+import com.habittracker.entity.HabitCompletionRollup.Granularity;
 import com.habittracker.entity.HabitLog;
+import com.habittracker.leaderboard.LeaderboardService;
 import com.habittracker.repository.HabitRepository;
 import com.habittracker.repository.HabitLogRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
+@Timed("habit.service")
 public class HabitService {
     
     @Autowired
@@ -26,18 +67,67 @@ public class HabitService {
     @Autowired
     private UserService userService;
     
-    public List<Habit> getAllHabitsByUserId(Long userId) {
-        return habitRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    @Autowired
+    private LeaderboardService leaderboardService;
+    
+    @Autowired
+    private CompletionBitmapService completionBitmapService;
+    
+    @Autowired
+    private RollupService rollupService;
+    
+    @Autowired
+    private PendingTapBuffer pendingTapBuffer;
+    
+    @Autowired
+    private DayRolloverService dayRolloverService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ReplicaConsistency replicaConsistency;
+    
+    @Autowired
+    private UserClock userClock;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${habittracker.cache.dashboard.max-size:10000}")
+    private int dashboardCacheMaxSize;
+    
+    @Value("${habittracker.cache.dashboard.ttl:PT5M}")
+    private Duration dashboardCacheTtl;
+    
+    // Per-user dashboard: habits plus today's logs, stamped with the day they were loaded for
+    private TtlCache<Long, DashboardSnapshot> dashboardCache;
+    
+    @PostConstruct
+    void initDashboardCache() {
+        dashboardCache = new TtlCache<>("dashboard", dashboardCacheMaxSize, dashboardCacheTtl);
+        FunctionCounter.builder("habit.cache.requests", dashboardCache, cache -> cache.getStats().getHits())
+                .tags("cache", "dashboard", "result", "hit").register(meterRegistry);
+        FunctionCounter.builder("habit.cache.requests", dashboardCache, cache -> cache.getStats().getMisses())
+                .tags("cache", "dashboard", "result", "miss").register(meterRegistry);
+        FunctionCounter.builder("habit.cache.evictions", dashboardCache, cache -> cache.getStats().getEvictions())
+                .tag("cache", "dashboard").register(meterRegistry);
+        Gauge.builder("habit.cache.size", dashboardCache, cache -> cache.getStats().getSize())
+                .tag("cache", "dashboard").register(meterRegistry);
+        Gauge.builder("habit.log.pending.keys", pendingTapBuffer, PendingTapBuffer::getPendingKeyCount).register(meterRegistry);
     }
     
-    public Optional<Habit> getHabitById(Long id) {
-        return habitRepository.findById(id);
+    @Transactional(readOnly = true)
+    public Optional<HabitView> getHabitById(Long id) {
+        return habitRepository.findViewById(id);
     }
     
     public Habit createHabit(Habit habit) {
+        evictDashboard(habit.getUserId());
         Habit savedHabit = habitRepository.save(habit);
         // Update user activity when creating a habit
         userService.updateUserActivity(habit.getUserId());
+        eventPublisher.publishEvent(HabitChangedEvent.changed(savedHabit.getUserId(), savedHabit.getId()));
         return savedHabit;
     }
     
@@ -45,18 +135,35 @@ public class HabitService {
         Optional<Habit> optionalHabit = habitRepository.findById(id);
         if (optionalHabit.isPresent()) {
             Habit habit = optionalHabit.get();
+            evictDashboard(habit.getUserId());
             habit.setName(habitDetails.getName());
             habit.setDescription(habitDetails.getDescription());
             habit.setDailyGoal(habitDetails.getDailyGoal());
+            eventPublisher.publishEvent(HabitChangedEvent.changed(habit.getUserId(), habit.getId()));
             return habitRepository.save(habit);
         }
         throw new RuntimeException("Habit not found with id: " + id);
     }
     
     public void deleteHabit(Long id) {
+        habitRepository.findById(id).ifPresent(habit -> {
+            evictDashboard(habit.getUserId());
+            eventPublisher.publishEvent(HabitChangedEvent.deleted(habit.getUserId(), id));
+            leaderboardService.removeHabit(id, habit.getUserId());
+        });
+        completionBitmapService.deleteForHabit(id);
         habitRepository.deleteById(id);
     }
     
+    /**
+     * Records one tap on the current day of the habit's owner
+     */
+    public HabitLog markHabitDone(Long habitId) {
+        Long userId = habitRepository.findUserIdById(habitId)
+                .orElseThrow(() -> new RuntimeException("Habit not found with id: " + habitId));
+        return markHabitDone(habitId, userClock.today(userId));
+    }
+    
     public HabitLog markHabitDone(Long habitId, LocalDate date) {
         Optional<Habit> optionalHabit = habitRepository.findById(habitId);
         if (!optionalHabit.isPresent()) {
@@ -64,32 +171,22 @@ public class HabitService {
         }
         
         Habit habit = optionalHabit.get();
-        Optional<HabitLog> existingLog = habitLogRepository.findByHabitIdAndDate(habitId, date);
+        evictDashboard(habit.getUserId());
         
-        if (existingLog.isPresent()) {
-            HabitLog log = existingLog.get();
-            int newCount = log.getCompletedCount() + 1;
-            log.setCompletedCount(newCount);
-            
-            // Check if we've reached the daily goal
-            if (newCount >= habit.getDailyGoal()) {
-                log.setIsCompleted(true);
-            }
-            HabitLog savedLog = habitLogRepository.save(log);
-            // Update user activity when marking habit as done
-            userService.updateUserActivity(habit.getUserId());
-            return savedLog;
-        } else {
-            HabitLog newLog = new HabitLog(habitId, date, 1);
-            // Check if this single completion meets the daily goal
-            if (habit.getDailyGoal() == 1) {
-                newLog.setIsCompleted(true);
-            }
-            HabitLog savedLog = habitLogRepository.save(newLog);
-            // Update user activity when marking habit as done
-            userService.updateUserActivity(habit.getUserId());
-            return savedLog;
+        if (pendingTapBuffer.isEnabled()) {
+            meterRegistry.counter("habit.log.taps", "mode", "coalesced").increment();
+            // Coalescing mode: merged in memory and written by LogTapFlusher as one batch, which publishes the change
+            return pendingTapBuffer.addTap(habit, date, () -> habitLogRepository.findByHabitIdAndDate(habitId, date));
         }
+        
+        eventPublisher.publishEvent(HabitChangedEvent.changed(habit.getUserId(), habitId));
+        meterRegistry.counter("habit.log.taps", "mode", "direct").increment();
+        // Single atomic upsert: creates the log or adds one completion, checking the daily goal in the same statement
+        HabitLog savedLog = habitLogRepository.incrementCompletedCount(habitId, date, habit.getDailyGoal());
+        syncCompletion(habit, date, savedLog.getIsCompleted());
+        // Update user activity when marking habit as done
+        userService.updateUserActivity(habit.getUserId());
+        return savedLog;
     }
     
     public HabitLog markHabitPartialDone(Long habitId, int completedCount) {
@@ -99,152 +196,482 @@ public class HabitService {
         }
         
         Habit habit = optionalHabit.get();
-        LocalDate today = LocalDate.now();
-        Optional<HabitLog> existingLog = habitLogRepository.findByHabitIdAndDate(habitId, today);
+        evictDashboard(habit.getUserId());
+        eventPublisher.publishEvent(HabitChangedEvent.changed(habit.getUserId(), habitId));
+        LocalDate today = userClock.today(habit.getUserId());
+        
+        // An absolute count supersedes taps that are still waiting to be flushed
+        pendingTapBuffer.discardPending(habit, today, completedCount, () -> habitLogRepository.findByHabitIdAndDate(habitId, today));
+        HabitLog savedLog = habitLogRepository.upsertCompletedCount(habitId, today, completedCount, habit.getDailyGoal());
+        syncCompletion(habit, today, savedLog.getIsCompleted());
+        // Update user activity when marking habit as partially done
+        userService.updateUserActivity(habit.getUserId());
+        return savedLog;
+    }
+    
+    /**
+     * Writes coalesced taps as one JDBC batch, then updates completion state, publishes a change event and
+     * updates user activity once per touched habit and user.
+     */
+    public void applyLogIncrements(List<LogIncrement> increments) {
+        Set<Long> habitIds = increments.stream().map(LogIncrement::getHabitId).collect(Collectors.toSet());
+        Map<Long, Habit> habits = habitRepository.findAllById(habitIds).stream()
+                .collect(Collectors.toMap(Habit::getId, Function.identity()));
+        
+        // Habits deleted while their taps were pending are skipped
+        List<LogIncrement> applicable = increments.stream()
+                .filter(increment -> habits.containsKey(increment.getHabitId()))
+                .collect(Collectors.toList());
+        habitLogRepository.incrementCompletedCounts(applicable);
+        meterRegistry.counter("habit.log.flushed.increments").increment(applicable.size());
+        
+        Map<LocalDate, List<Long>> habitIdsByDate = applicable.stream()
+                .collect(Collectors.groupingBy(LogIncrement::getDate,
+                        Collectors.mapping(LogIncrement::getHabitId, Collectors.toList())));
+        habitIdsByDate.forEach((date, ids) -> {
+            for (HabitLog log : habitLogRepository.findByHabitIdInAndDate(ids, date)) {
+                syncCompletion(habits.get(log.getHabitId()), date, log.getIsCompleted());
+            }
+        });
         
-        if (existingLog.isPresent()) {
-            HabitLog log = existingLog.get();
-            log.setCompletedCount(completedCount);
-            log.setIsCompleted(completedCount >= habit.getDailyGoal());
-            HabitLog savedLog = habitLogRepository.save(log);
-            // Update user activity when marking habit as partially done
-            userService.updateUserActivity(habit.getUserId());
-            return savedLog;
+        // Evict first: its after-commit invalidation must run before the event delivery reads the dashboard
+        Set<Long> userIds = habits.values().stream().map(Habit::getUserId).collect(Collectors.toSet());
+        for (Long userId : userIds) {
+            evictDashboard(userId);
+            userService.updateUserActivity(userId);
+        }
+        
+        applicable.stream().map(LogIncrement::getHabitId).distinct().forEach(habitId ->
+                eventPublisher.publishEvent(HabitChangedEvent.changed(habits.get(habitId).getUserId(), habitId)));
+    }
+    
+    /**
+     * Applies replayed taps from an offline client in one transaction: entries are merged per habit and day
+     * and written as one JDBC batch, then completion state, streak and progress are recomputed once per habit
+     * and user activity once per user.
+     */
+    public List<LogSyncResult> syncLogs(List<LogSyncEntry> entries) {
+        Set<Long> habitIds = entries.stream().map(LogSyncEntry::getHabitId).collect(Collectors.toSet());
+        Map<Long, Habit> habits = habitRepository.findAllById(habitIds).stream()
+                .collect(Collectors.toMap(Habit::getId, Function.identity()));
+        // "Future" is judged by each owner's own day
+        Map<Long, LocalDate> todayByHabit = new HashMap<>();
+        habits.values().forEach(habit -> todayByHabit.put(habit.getId(), userClock.today(habit.getUserId())));
+        
+        // Taps per habit and day
+        Map<Long, Map<LocalDate, Integer>> taps = new HashMap<>();
+        for (LogSyncEntry entry : entries) {
+            if (habits.containsKey(entry.getHabitId()) && !entry.getDate().isAfter(todayByHabit.get(entry.getHabitId()))) {
+                taps.computeIfAbsent(entry.getHabitId(), id -> new TreeMap<>())
+                        .merge(entry.getDate(), entry.getCount(), Integer::sum);
+            }
+        }
+        
+        Map<Long, Map<LocalDate, HabitLog>> logs = new HashMap<>();
+        if (!taps.isEmpty()) {
+            List<LogIncrement> increments = new ArrayList<>();
+            taps.forEach((habitId, countsByDate) -> countsByDate.forEach((date, count) ->
+                    increments.add(new LogIncrement(habitId, date, count, habits.get(habitId).getDailyGoal()))));
+            habitLogRepository.incrementCompletedCounts(increments);
+            
+            // Re-read only the synced (habit, day) pairs, one query per distinct day
+            Map<LocalDate, List<Long>> habitIdsByDate = increments.stream()
+                    .collect(Collectors.groupingBy(LogIncrement::getDate,
+                            Collectors.mapping(LogIncrement::getHabitId, Collectors.toList())));
+            habitIdsByDate.forEach((date, ids) -> {
+                for (HabitLog log : habitLogRepository.findByHabitIdInAndDate(ids, date)) {
+                    logs.computeIfAbsent(log.getHabitId(), id -> new HashMap<>()).put(log.getDate(), log);
+                }
+            });
+            logs.forEach((habitId, logsByDate) -> recomputeAfterSync(habits.get(habitId), logsByDate, todayByHabit.get(habitId)));
+            
+            // Evict first: its after-commit invalidation must run before the event delivery reads the dashboard
+            Set<Long> userIds = taps.keySet().stream().map(habitId -> habits.get(habitId).getUserId()).collect(Collectors.toSet());
+            for (Long userId : userIds) {
+                evictDashboard(userId);
+                userService.updateUserActivity(userId);
+            }
+            taps.keySet().forEach(habitId ->
+                    eventPublisher.publishEvent(HabitChangedEvent.changed(habits.get(habitId).getUserId(), habitId)));
+        }
+        
+        List<LogSyncResult> results = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            LogSyncEntry entry = entries.get(i);
+            if (!habits.containsKey(entry.getHabitId())) {
+                results.add(new LogSyncResult(i, entry, LogSyncResult.Status.HABIT_NOT_FOUND, null));
+            } else if (entry.getDate().isAfter(todayByHabit.get(entry.getHabitId()))) {
+                results.add(new LogSyncResult(i, entry, LogSyncResult.Status.FUTURE_DATE, null));
+            } else {
+                HabitLog log = logs.getOrDefault(entry.getHabitId(), Collections.emptyMap()).get(entry.getDate());
+                results.add(new LogSyncResult(i, entry, LogSyncResult.Status.APPLIED, log));
+            }
+        }
+        meterRegistry.counter("habit.log.synced.entries").increment(entries.size());
+        return results;
+    }
+    
+    private void recomputeAfterSync(Habit habit, Map<LocalDate, HabitLog> logsByDate, LocalDate today) {
+        if (completionBitmapService.ensureBitmaps(habit.getId())) {
+            recalculateStreak(habit);
         } else {
-            HabitLog newLog = new HabitLog(habitId, today, completedCount);
-            newLog.setIsCompleted(completedCount >= habit.getDailyGoal());
-            HabitLog savedLog = habitLogRepository.save(newLog);
-            // Update user activity when marking habit as partially done
-            userService.updateUserActivity(habit.getUserId());
-            return savedLog;
+            Map<LocalDate, Boolean> completedByDate = new HashMap<>();
+            logsByDate.forEach((date, log) -> completedByDate.put(date, log.getIsCompleted()));
+            if (completionBitmapService.setCompletedDays(habit.getId(), completedByDate)) {
+                recalculateStreak(habit);
+            }
+        }
+        
+        HabitLog todayLog = logsByDate.get(today);
+        if (todayLog != null) {
+            habit.setProgressPercent(calculateProgressPercentage(todayLog, habit.getDailyGoal()));
         }
+        leaderboardService.recordHabitStreak(habit.getId(), habit.getUserId(), habit.getStreakCount());
     }
     
+    /**
+     * Recomputes the stored derived fields (expired streak, today's progress) of one habit.
+     * Runs via {@link DerivedFieldRecomputer} after a direct tap commits, or after the flush of coalesced taps
+     * ({@link #applyLogIncrements}) commits.
+     */
     public void updateHabitProgress(Long habitId) {
-        Optional<Habit> optionalHabit = habitRepository.findById(habitId);
+        Optional<Habit> optionalHabit = habitRepository.findByIdForUpdate(habitId);
         if (!optionalHabit.isPresent()) {
             return;
         }
         
         Habit habit = optionalHabit.get();
+        evictDashboard(habit.getUserId());
+        LocalDate today = userClock.today(habit.getUserId());
         
-        // Calculate streak count
-        int streakCount = calculateStreakCount(habitId);
-        habit.setStreakCount(streakCount);
+        // Streak is maintained on log writes; only expire it if the run has been broken
+        expireBrokenStreak(habit, today);
         
-        // Calculate progress percentage (based on last 30 days)
-        double progressPercent = calculateProgressPercentage(habitId);
-        habit.setProgressPercent(progressPercent);
+        // Calculate progress percentage (based on today's log)
+        HabitLog todayLog = findTodayLog(habitId, today).orElse(null);
+        habit.setProgressPercent(calculateProgressPercentage(todayLog, habit.getDailyGoal()));
         
         habitRepository.save(habit);
     }
     
-    private int calculateStreakCount(Long habitId) {
-        List<HabitLog> completedLogs = habitLogRepository.findCompletedByHabitIdOrderByDateDesc(habitId);
+    /**
+     * Keeps the completion bitmap and the stored streak in sync with a log's completion state.
+     * Repeat taps on an already completed day are answered from the habit's last completed date
+     * without touching the bitmap.
+     */
+    private void syncCompletion(Habit habit, LocalDate date, boolean completed) {
+        if (completed == date.equals(habit.getLastCompletedDate())) {
+            return;
+        }
+        if (completionBitmapService.ensureBitmaps(habit.getId())) {
+            // First change for this habit, or history written before bitmaps existed: backfilled from the logs
+            recalculateStreak(habit);
+        } else if (completionBitmapService.setCompleted(habit.getId(), date, completed)) {
+            updateStreak(habit, date, completed);
+        }
+        leaderboardService.recordHabitStreak(habit.getId(), habit.getUserId(), habit.getStreakCount());
+    }
+    
+    /**
+     * Advances the stored streak after a day's completion state changed.
+     * Completing the day after the last completed day extends the run and completing a later day
+     * starts a new one; anything else edits history backwards and falls back to a full recomputation.
+     */
+    private void updateStreak(Habit habit, LocalDate date, boolean completed) {
+        LocalDate lastCompleted = habit.getLastCompletedDate();
+        if (completed && lastCompleted != null) {
+            if (date.equals(lastCompleted.plusDays(1)) && habit.getStreakCount() > 0) {
+                habit.setStreakCount(habit.getStreakCount() + 1);
+                habit.setLastCompletedDate(date);
+                return;
+            }
+            if (date.isAfter(lastCompleted.plusDays(1))) {
+                habit.setStreakCount(1);
+                habit.setLastCompletedDate(date);
+                return;
+            }
+        }
+        
+        recalculateStreak(habit);
+    }
+    
+    /**
+     * Full streak recomputation from the completion bitmap.
+     * Only needed when history is edited backwards or the habit has no streak state yet.
+     */
+    private void recalculateStreak(Habit habit) {
+        CompletionBitmapService.StreakInfo streakInfo = completionBitmapService.getLatestStreak(habit.getId());
+        habit.setStreakCount(streakInfo.getStreak());
+        habit.setLastCompletedDate(streakInfo.getLastCompletedDate().orElse(null));
+        expireBrokenStreak(habit, userClock.today(habit.getUserId()));
+    }
+    
+    /**
+     * A streak is current while the last completed day is today or yesterday.
+     * Once a full day has been missed the stored streak is reset to 0.
+     */
+    private void expireBrokenStreak(Habit habit, LocalDate today) {
+        LocalDate lastCompleted = habit.getLastCompletedDate();
+        if (lastCompleted == null || lastCompleted.isBefore(today.minusDays(1))) {
+            if (habit.getStreakCount() == null || habit.getStreakCount() != 0) {
+                habit.setStreakCount(0);
+                leaderboardService.recordHabitStreak(habit.getId(), habit.getUserId(), 0);
+            }
+        }
+    }
+    
+    private double calculateProgressPercentage(HabitLog todayLog, Integer dailyGoal) {
+        // If no log for today, return 0%
+        if (todayLog == null) {
+            return 0.0;
+        }
+        return calculateProgressPercentage(todayLog.getCompletedCount(), dailyGoal);
+    }
+    
+    private static double calculateProgressPercentage(Integer completedCount, Integer dailyGoal) {
+        if (completedCount == null) {
+            return 0.0;
+        }
         
-        if (completedLogs.isEmpty()) {
+        // Calculate today's progress percentage
+        double todayProgress = (completedCount.doubleValue() / dailyGoal) * 100.0;
+        return Math.round(todayProgress * 100.0) / 100.0; // Round to 2 decimal places
+    }
+    
+    /**
+     * The streak as shown to users: the stored run, or 0 once a full day has been missed.
+     * Lets reads report expired streaks without writing them back.
+     */
+    private static int currentStreak(Integer streakCount, LocalDate lastCompletedDate, LocalDate today) {
+        if (streakCount == null || lastCompletedDate == null || lastCompletedDate.isBefore(today.minusDays(1))) {
             return 0;
         }
+        return streakCount;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<HabitLogView> getHabitLogs(Long habitId) {
+        return habitLogRepository.findViewsByHabitId(habitId);
+    }
+    
+    /**
+     * One keyset page of logs, newest first: up to {@code limit} logs dated strictly before {@code before}
+     * (or the latest ones when {@code before} is null).
+     */
+    @Transactional(readOnly = true)
+    public List<HabitLogView> getHabitLogsPage(Long habitId, LocalDate before, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        if (before == null) {
+            return habitLogRepository.findLatestByHabitId(habitId, page);
+        }
+        return habitLogRepository.findByHabitIdBefore(habitId, before, page);
+    }
+    
+    /**
+     * Passes every log of a habit to the consumer, newest first, without holding the history in memory:
+     * rows come from a database cursor as projections, so nothing accumulates in the persistence context.
+     */
+    @Transactional(readOnly = true)
+    public void streamHabitLogs(Long habitId, Consumer<HabitLogView> consumer) {
+        try (Stream<HabitLogView> logs = habitLogRepository.streamByHabitId(habitId)) {
+            logs.forEach(consumer);
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<HabitLogView> getTodayLog(Long habitId) {
+        Optional<Long> userId = habitRepository.findUserIdById(habitId);
+        if (!userId.isPresent()) {
+            return Optional.empty();
+        }
+        LocalDate today = userClock.today(userId.get());
+        Optional<HabitLog> pendingLog = pendingTapBuffer.getProjectedLog(habitId, today);
+        if (pendingLog.isPresent()) {
+            return pendingLog.map(HabitLogView::from);
+        }
+        return habitLogRepository.findViewByHabitIdAndDate(habitId, today);
+    }
+    
+    /**
+     * Current day of the habit's owner
+     */
+    @Transactional(readOnly = true)
+    public LocalDate getToday(Long habitId) {
+        Long userId = habitRepository.findUserIdById(habitId)
+                .orElseThrow(() -> new RuntimeException("Habit not found with id: " + habitId));
+        return userClock.today(userId);
+    }
+    
+    private Optional<HabitLog> findTodayLog(Long habitId, LocalDate today) {
+        Optional<HabitLog> pendingLog = pendingTapBuffer.getProjectedLog(habitId, today);
+        if (pendingLog.isPresent()) {
+            return pendingLog;
+        }
+        return habitLogRepository.findByHabitIdAndDate(habitId, today);
+    }
+    
+    /**
+     * Completion calendar for a habit, served from the completion bitmap
+     */
+    @Transactional(readOnly = true)
+    public HeatmapResponse getHeatmap(Long habitId, LocalDate from, LocalDate to) {
+        Optional<HabitView> optionalHabit = habitRepository.findViewById(habitId);
+        if (!optionalHabit.isPresent()) {
+            throw new RuntimeException("Habit not found with id: " + habitId);
+        }
         
-        int streak = 0;
-        LocalDate currentDate = LocalDate.now();
+        BitSet completed = completionBitmapService.getCompletedDays(habitId, from, to);
+        List<LocalDate> completedDays = new ArrayList<>(completed.cardinality());
+        for (int i = completed.nextSetBit(0); i >= 0; i = completed.nextSetBit(i + 1)) {
+            completedDays.add(from.plusDays(i));
+        }
         
-        // Check if today is completed, if so start counting from today
-        boolean todayCompleted = false;
-        for (HabitLog log : completedLogs) {
-            if (log.getDate().equals(currentDate) && log.getIsCompleted()) {
-                todayCompleted = true;
-                break;
-            }
+        HabitView habit = optionalHabit.get();
+        return new HeatmapResponse(habitId, from, to, completedDays,
+                currentStreak(habit.streakCount(), habit.lastCompletedDate(), userClock.today(habit.userId())));
+    }
+    
+    @Transactional(readOnly = true)
+    public HabitStatsResponse getStats(Long habitId, Granularity granularity, int periods) {
+        Optional<HabitView> optionalHabit = habitRepository.findViewById(habitId);
+        if (!optionalHabit.isPresent()) {
+            throw new RuntimeException("Habit not found with id: " + habitId);
+        }
+        HabitView habit = optionalHabit.get();
+        return rollupService.getStats(habit, granularity, periods, userClock.today(habit.userId()));
+    }
+    
+    /**
+     * Loads the dashboard for a user: habits joined with today's logs in a single projection query.
+     * Expired streaks and today's progress are computed for the response only; the stored values are
+     * corrected by log writes and the day rollover, so the read stays read-only.
+     */
+    @Transactional(readOnly = true)
+    public List<HabitResponse> getDashboard(Long userId) {
+        return getVersionedDashboard(userId).habits();
+    }
+    
+    /**
+     * The dashboard with its entity tag, which equals {@link #getDashboardVersion} for the same state
+     */
+    @Transactional(readOnly = true)
+    public VersionedDashboard getVersionedDashboard(Long userId) {
+        LocalDate today = userClock.today(userId);
+        DashboardSnapshot cached = dashboardCache.get(userId, snapshot -> snapshot.day.equals(today));
+        if (cached != null) {
+            return cached.dashboard;
         }
         
-        // If today is completed, start counting from today
-        // If not, start counting from yesterday
-        LocalDate startDate = todayCompleted ? currentDate : currentDate.minusDays(1);
+        long stamp = dashboardCache.stamp(userId);
+        List<HabitDashboardRow> rows = habitRepository.findDashboardRows(userId, today);
         
-        for (HabitLog log : completedLogs) {
-            if (log.getDate().equals(startDate.minusDays(streak))) {
-                streak++;
-            } else {
-                break;
+        List<HabitResponse> responses = new ArrayList<>(rows.size());
+        LocalDateTime lastHabitUpdate = null;
+        long streakSum = 0;
+        long todayLogCount = 0;
+        long todayCompletedSum = 0;
+        for (HabitDashboardRow row : rows) {
+            Integer completedCountToday = row.completedCountToday();
+            Boolean completedToday = row.completedToday();
+            // Read-your-writes: include taps that have not been flushed yet
+            Optional<HabitLog> pendingLog = pendingTapBuffer.isEnabled()
+                    ? pendingTapBuffer.getProjectedLog(row.id(), today) : Optional.empty();
+            if (pendingLog.isPresent()) {
+                completedCountToday = pendingLog.get().getCompletedCount();
+                completedToday = pendingLog.get().getIsCompleted();
             }
-        }
-        
-        return streak;
-    }
-    
-    private double calculateProgressPercentage(Long habitId) {
-        // Check today's progress
-        Optional<HabitLog> todayLog = habitLogRepository.findByHabitIdAndDate(habitId, LocalDate.now());
-        if (todayLog.isPresent()) {
-            HabitLog log = todayLog.get();
-            Optional<Habit> habit = habitRepository.findById(habitId);
-            if (habit.isPresent()) {
-                // Calculate today's progress percentage
-                double todayProgress = (log.getCompletedCount().doubleValue() / habit.get().getDailyGoal()) * 100.0;
-                return Math.round(todayProgress * 100.0) / 100.0; // Round to 2 decimal places
+            responses.add(new HabitResponse(row,
+                    currentStreak(row.streakCount(), row.lastCompletedDate(), today),
+                    calculateProgressPercentage(completedCountToday, row.dailyGoal()),
+                    completedToday, completedCountToday));
+            
+            // Same aggregate as HabitRepository.findDashboardVersion
+            if (row.updatedAt() != null && (lastHabitUpdate == null || row.updatedAt().isAfter(lastHabitUpdate))) {
+                lastHabitUpdate = row.updatedAt();
+            }
+            streakSum += row.streakCount() != null ? row.streakCount() : 0;
+            if (completedCountToday != null) {
+                todayLogCount++;
+                todayCompletedSum += completedCountToday;
             }
         }
-        
-        // If no log for today, return 0%
-        return 0.0;
+        DashboardVersion version = new DashboardVersion((long) rows.size(), lastHabitUpdate, streakSum, todayLogCount, todayCompletedSum);
+        VersionedDashboard dashboard = new VersionedDashboard(version.toEtag(today), responses);
+        dashboardCache.putIfNotInvalidated(userId, new DashboardSnapshot(today, dashboard), stamp);
+        return dashboard;
     }
     
-    public List<HabitLog> getHabitLogs(Long habitId) {
-        return habitLogRepository.findByHabitId(habitId);
+    /**
+     * Entity tag of the user's dashboard without loading it: a cache hit, or one aggregate query.
+     * Returns null when the tag cannot be known without building the dashboard (taps pending in memory).
+     */
+    @Transactional(readOnly = true)
+    public String getDashboardVersion(Long userId) {
+        LocalDate today = userClock.today(userId);
+        DashboardSnapshot cached = dashboardCache.get(userId, snapshot -> snapshot.day.equals(today));
+        if (cached != null) {
+            return cached.dashboard.etag();
+        }
+        if (pendingTapBuffer.isEnabled()) {
+            return null;
+        }
+        return habitRepository.findDashboardVersion(userId, today).toEtag(today);
     }
     
-    public Optional<HabitLog> getTodayLog(Long habitId) {
-        return habitLogRepository.findByHabitIdAndDate(habitId, LocalDate.now());
+    public CacheStats getDashboardCacheStats() {
+        return dashboardCache.getStats();
     }
     
     /**
-     * Updates all habits for a user - recalculates streaks and progress
-     * This should be called when fetching habits to ensure fresh data
+     * Drops the user's cached dashboard now and again once the surrounding transaction commits,
+     * so a concurrent reader cannot re-cache the pre-commit state.
      */
-    public void updateAllHabitsForUser(Long userId) {
-        List<Habit> habits = getAllHabitsByUserId(userId);
-        for (Habit habit : habits) {
-            updateHabitProgress(habit.getId());
+    private void evictDashboard(Long userId) {
+        dashboardCache.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dashboardCache.invalidate(userId);
+                    // A replica read during the lag window may have cached the pre-write state again
+                    replicaConsistency.afterLagWindow(() -> dashboardCache.invalidate(userId));
+                }
+            });
         }
     }
     
     /**
      * Checks if it's a new day and resets daily progress if needed
-     * This method can be called periodically to handle day transitions
+     * This method can be called periodically to handle day transitions; each time zone whose
+     * day has started since its last rollover is processed, users of other zones are untouched
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void checkAndHandleDayTransition() {
-        // This method can be extended in the future to handle
-        // automatic day transitions, but for now we rely on
-        // the frontend to refresh data when needed
+        // Chunks run in their own transactions; the scheduled rollover normally got there first
+        dayRolloverService.runDueRollovers();
     }
     
     /**
-     * Performs a complete daily reset for a user - removes all habits and recreates them fresh
-     * This simulates the cards being completely removed and recreated every 24 hours
+     * Resets the daily state of a user's habits in place (today's progress, expired streaks).
+     * Habits, their IDs and their log history are kept. Written as entity updates, so only this user's
+     * habits leave the second-level cache rather than the whole region.
      */
     public void dailyResetForUser(Long userId) {
-        // Get all habits for the user before deletion
-        List<Habit> existingHabits = habitRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        
-        // Store habit data for recreation
-        List<HabitData> habitDataList = existingHabits.stream()
-            .map(habit -> new HabitData(habit.getName(), habit.getDescription(), habit.getDailyGoal()))
-            .collect(Collectors.toList());
-        
-        // Delete all habits for the user (this will cascade delete all habit logs)
-        habitRepository.deleteByUserId(userId);
-        
-        // Recreate all habits with fresh data
-        for (HabitData habitData : habitDataList) {
-            Habit newHabit = new Habit(habitData.name, habitData.description, habitData.dailyGoal, userId);
-            habitRepository.save(newHabit);
+        evictDashboard(userId);
+        LocalDate yesterday = userClock.today(userId).minusDays(1);
+        for (Habit habit : habitRepository.findByUserId(userId)) {
+            habit.setProgressPercent(0.0);
+            if (habit.getLastCompletedDate() == null || habit.getLastCompletedDate().isBefore(yesterday)) {
+                habit.setStreakCount(0);
+                leaderboardService.recordHabitStreak(habit.getId(), userId, 0);
+            }
         }
     }
     
     /**
      * Get user's total streak from UserService
      */
+    @Transactional(readOnly = true)
     public Integer getUserStreak(Long userId) {
         return userService.getUserStreak(userId);
     }
@@ -257,17 +684,15 @@ public class HabitService {
     }
     
     /**
-     * Helper class to store habit data during reset
+     * Cached dashboard for one user and one day
      */
-    private static class HabitData {
-        private final String name;
-        private final String description;
-        private final int dailyGoal;
+    private static class DashboardSnapshot {
+        private final LocalDate day;
+        private final VersionedDashboard dashboard;
         
-        public HabitData(String name, String description, int dailyGoal) {
-            this.name = name;
-            this.description = description;
-            this.dailyGoal = dailyGoal;
+        public DashboardSnapshot(LocalDate day, VersionedDashboard dashboard) {
+            this.day = day;
+            this.dashboard = dashboard;
         }
     }
 }
@@ -0,0 +1,64 @@
+package com.habittracker.service;
+
+import com.habittracker.dto.LogIncrement;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically writes the taps merged in {@link PendingTapBuffer} to the database
+ */
+@Component
+public class LogTapFlusher {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LogTapFlusher.class);
+    
+    @Autowired
+    private PendingTapBuffer pendingTapBuffer;
+    
+    @Autowired
+    private HabitService habitService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Scheduled(fixedDelayString = "${habittracker.ingestion.coalescing.flush-interval-ms:200}")
+    public synchronized void flush() {
+        if (!pendingTapBuffer.isEnabled()) {
+            return;
+        }
+        
+        List<LogIncrement> increments = pendingTapBuffer.beginFlush();
+        if (increments.isEmpty()) {
+            pendingTapBuffer.completeFlush(true);
+            return;
+        }
+        
+        boolean committed = false;
+        try {
+            habitService.applyLogIncrements(increments);
+            committed = true;
+            meterRegistry.counter("habit.log.flushes", "outcome", "success").increment();
+        } catch (RuntimeException e) {
+            meterRegistry.counter("habit.log.flushes", "outcome", "error").increment();
+            logger.error("Failed to flush {} coalesced habit log increments, will retry", increments.size(), e);
+        } finally {
+            int droppedTaps = pendingTapBuffer.completeFlush(committed);
+            if (droppedTaps > 0) {
+                meterRegistry.counter("habit.log.taps.dropped").increment(droppedTaps);
+                logger.error("Dropped {} coalesced habit log taps after repeated flush failures", droppedTaps);
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
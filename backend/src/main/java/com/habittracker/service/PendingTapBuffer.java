@@ -0,0 +1,263 @@
+package com.habittracker.service;
+
+import com.habittracker.dto.LogIncrement;
+import com.habittracker.entity.Habit;
+import com.habittracker.entity.HabitLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-memory buffer for the coalescing ingestion mode. Repeat taps on the same (habitId, date)
+ * are merged here and written out periodically as one JDBC batch by {@link LogTapFlusher}.
+ * Each entry remembers the persisted count it started from, so callers can be answered with the
+ * projected count (read-your-writes) before the batch reaches the database.
+ *
+ * Flushing assumes a single flushing thread: {@link #beginFlush()} and {@link #completeFlush(boolean)}
+ * must not be called concurrently. A batch that keeps failing is retried up to max-flush-attempts times,
+ * then its taps are dropped.
+ */
+@Component
+public class PendingTapBuffer {
+    
+    @Value("${habittracker.ingestion.coalescing.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${habittracker.ingestion.coalescing.max-flush-attempts:50}")
+    private int maxFlushAttempts;
+    
+    private final Map<TapKey, PendingTaps> pending = new ConcurrentHashMap<>();
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Records one tap and returns the log as it will look once flushed.
+     * The persisted log is only loaded for the first tap of a key within a flush window.
+     */
+    public HabitLog addTap(Habit habit, LocalDate date, Supplier<Optional<HabitLog>> persistedLog) {
+        TapKey key = new TapKey(habit.getId(), date);
+        while (true) {
+            PendingTaps entry = pending.get(key);
+            if (entry == null) {
+                PendingTaps created = new PendingTaps(habit, date, persistedLog.get().orElse(null));
+                entry = pending.computeIfAbsent(key, k -> created);
+            }
+            synchronized (entry) {
+                if (entry.retired) {
+                    // Flushed and removed concurrently; start a fresh entry from the committed count
+                    continue;
+                }
+                entry.taps++;
+                return entry.toProjectedLog();
+            }
+        }
+    }
+    
+    /**
+     * Projected log including taps that have not been flushed yet, if any are pending.
+     */
+    public Optional<HabitLog> getProjectedLog(Long habitId, LocalDate date) {
+        PendingTaps entry = pending.get(new TapKey(habitId, date));
+        if (entry == null) {
+            return Optional.empty();
+        }
+        synchronized (entry) {
+            return entry.retired ? Optional.empty() : Optional.of(entry.toProjectedLog());
+        }
+    }
+    
+    /**
+     * Re-bases the key on an absolute count about to be written in the current transaction, e.g. by a partial-done
+     * update: pending taps are dropped and later taps are projected on top of newCount. Waits for a batch that is
+     * in flight for the key to finish first, then holds the key until the transaction completes, so no batch can
+     * reach the database before the absolute count. On rollback the previous base and the dropped taps are restored.
+     */
+    public void discardPending(Habit habit, LocalDate date, int newCount, Supplier<Optional<HabitLog>> persistedLog) {
+        if (!enabled) {
+            return;
+        }
+        TapKey key = new TapKey(habit.getId(), date);
+        while (true) {
+            PendingTaps entry = pending.get(key);
+            if (entry == null) {
+                PendingTaps created = new PendingTaps(habit, date, persistedLog.get().orElse(null));
+                entry = pending.computeIfAbsent(key, k -> created);
+            }
+            synchronized (entry) {
+                awaitNotInFlight(entry);
+                if (entry.retired) {
+                    continue;
+                }
+                int previousBase = entry.baseCount;
+                int droppedTaps = entry.taps;
+                entry.baseCount = newCount;
+                entry.taps = 0;
+                entry.holds++;
+                PendingTaps held = entry;
+                afterCompletion(committed -> release(held, committed, previousBase, droppedTaps));
+                return;
+            }
+        }
+    }
+    
+    private void awaitNotInFlight(PendingTaps entry) {
+        while (entry.inFlight > 0) {
+            try {
+                entry.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for pending taps of habit " + entry.habitId, e);
+            }
+        }
+    }
+    
+    private void release(PendingTaps entry, boolean committed, int previousBase, int droppedTaps) {
+        synchronized (entry) {
+            entry.holds--;
+            if (!committed) {
+                entry.baseCount = previousBase;
+                entry.taps += droppedTaps;
+            }
+        }
+    }
+    
+    /**
+     * Runs the callback once the surrounding transaction completes; immediately (as committed) outside a transaction
+     */
+    private static void afterCompletion(Consumer<Boolean> callback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    callback.accept(status == STATUS_COMMITTED);
+                }
+            });
+        } else {
+            callback.accept(true);
+        }
+    }
+    
+    /**
+     * Marks all pending taps as in flight and returns them as increments for one batch.
+     */
+    public List<LogIncrement> beginFlush() {
+        List<LogIncrement> increments = new ArrayList<>();
+        for (PendingTaps entry : pending.values()) {
+            synchronized (entry) {
+                // Held keys wait for their absolute count to commit
+                if (entry.retired || entry.taps == 0 || entry.holds > 0) {
+                    continue;
+                }
+                entry.inFlight = entry.taps;
+                increments.add(new LogIncrement(entry.habitId, entry.date, entry.inFlight, entry.dailyGoal));
+            }
+        }
+        return increments;
+    }
+    
+    /**
+     * Called after the batch from {@link #beginFlush()} committed or failed. On success the in-flight taps
+     * become part of the persisted base and idle entries are dropped; on failure they stay pending for the next flush,
+     * unless their key has now failed max-flush-attempts times in a row. Returns the number of taps dropped.
+     */
+    public int completeFlush(boolean committed) {
+        int droppedTaps = 0;
+        for (Map.Entry<TapKey, PendingTaps> mapEntry : pending.entrySet()) {
+            PendingTaps entry = mapEntry.getValue();
+            synchronized (entry) {
+                if (committed) {
+                    entry.baseCount += entry.inFlight;
+                    entry.taps -= entry.inFlight;
+                    entry.failedFlushes = 0;
+                } else if (entry.inFlight > 0 && ++entry.failedFlushes >= maxFlushAttempts) {
+                    droppedTaps += entry.inFlight;
+                    entry.taps -= entry.inFlight;
+                    entry.failedFlushes = 0;
+                }
+                entry.inFlight = 0;
+                entry.notifyAll();
+                if (entry.taps == 0 && entry.holds == 0) {
+                    entry.retired = true;
+                    pending.remove(mapEntry.getKey(), entry);
+                }
+            }
+        }
+        return droppedTaps;
+    }
+    
+    public int getPendingKeyCount() {
+        return pending.size();
+    }
+    
+    private static final class TapKey {
+        private final Long habitId;
+        private final LocalDate date;
+        
+        TapKey(Long habitId, LocalDate date) {
+            this.habitId = habitId;
+            this.date = date;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TapKey)) {
+                return false;
+            }
+            TapKey other = (TapKey) o;
+            return habitId.equals(other.habitId) && date.equals(other.date);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(habitId, date);
+        }
+    }
+    
+    private static final class PendingTaps {
+        private final Long habitId;
+        private final LocalDate date;
+        private final int dailyGoal;
+        private final Long logId;
+        private final LocalDateTime createdAt;
+        private int baseCount;
+        private int taps;
+        private int inFlight;
+        private int holds;
+        private int failedFlushes;
+        private boolean retired;
+        
+        PendingTaps(Habit habit, LocalDate date, HabitLog persisted) {
+            this.habitId = habit.getId();
+            this.date = date;
+            this.dailyGoal = habit.getDailyGoal();
+            this.logId = persisted != null ? persisted.getId() : null;
+            this.createdAt = persisted != null ? persisted.getCreatedAt() : LocalDateTime.now();
+            this.baseCount = persisted != null ? persisted.getCompletedCount() : 0;
+        }
+        
+        HabitLog toProjectedLog() {
+            HabitLog log = new HabitLog(habitId, date, baseCount + taps);
+            log.setId(logId);
+            log.setIsCompleted(baseCount + taps >= dailyGoal);
+            log.setCreatedAt(createdAt);
+            return log;
+        }
+    }
+}
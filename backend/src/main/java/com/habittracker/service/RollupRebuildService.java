@@ -0,0 +1,152 @@
+package com.habittracker.service;
+
+import com.habittracker.config.WorkerThreadFactory;
+import com.habittracker.dto.RollupRebuildReport;
+import com.habittracker.repository.HabitCompletionRollupRepository;
+import com.habittracker.repository.HabitLogRepository;
+import com.habittracker.repository.HabitRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Backfills the completion rollups from habit_logs, one habit ID range per transaction
+ */
+@Service
+public class RollupRebuildService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RollupRebuildService.class);
+    
+    @Autowired
+    private HabitRepository habitRepository;
+    
+    @Autowired
+    private HabitLogRepository habitLogRepository;
+    
+    @Autowired
+    private HabitCompletionRollupRepository rollupRepository;
+    
+    @Autowired
+    private RollupService rollupService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private WorkerThreadFactory workerThreadFactory;
+    
+    @Value("${habittracker.rollups.rebuild-chunk-size:1000}")
+    private long chunkSize;
+    
+    @Value("${habittracker.rollups.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+    
+    private TransactionTemplate chunkTransaction;
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    @PostConstruct
+    void init() {
+        chunkTransaction = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Backfills in the background: everything when there are logs but no rollups yet (e.g. upgraded from a version
+     * without them), otherwise only the habits that have completion bitmaps but no rollups
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissing() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        if (rollupRepository.count() == 0) {
+            if (habitLogRepository.count() > 0) {
+                workerThreadFactory.create("rollup-backfill-").newThread(this::rebuildAll).start();
+            }
+            return;
+        }
+        List<Long> habitIds = rollupRepository.findHabitIdsWithBitmapsButNoRollups();
+        if (!habitIds.isEmpty()) {
+            workerThreadFactory.create("rollup-backfill-").newThread(() -> rebuildHabits(habitIds)).start();
+        }
+    }
+    
+    /**
+     * Rebuilds the rollups of the given habits, one transaction each. Returns false if a rebuild is already running.
+     */
+    public boolean rebuildHabits(List<Long> habitIds) {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Rollup rebuild skipped, a rebuild is already running");
+            return false;
+        }
+        
+        try {
+            int failed = 0;
+            for (Long habitId : habitIds) {
+                try {
+                    rollupService.rebuildForHabit(habitId);
+                } catch (RuntimeException e) {
+                    failed++;
+                    logger.error("Rollup rebuild failed for habit {}", habitId, e);
+                }
+            }
+            logger.info("Rollups rebuilt for {} habits without rollups ({} failed)", habitIds.size(), failed);
+            return true;
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    /**
+     * Rebuilds every habit's rollups. Returns null if a rebuild is already running.
+     */
+    public RollupRebuildReport rebuildAll() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Rollup rebuild skipped, a rebuild is already running");
+            return null;
+        }
+        
+        try {
+            long start = System.nanoTime();
+            LocalDateTime startedAt = LocalDateTime.now();
+            Long minId = habitRepository.findMinId();
+            Long maxId = habitRepository.findMaxId();
+            
+            int chunkCount = 0;
+            int failedChunks = 0;
+            long rollupRows = 0;
+            if (minId != null && maxId != null) {
+                for (long fromId = minId; fromId <= maxId; fromId += chunkSize) {
+                    long chunkFrom = fromId;
+                    long chunkTo = Math.min(fromId + chunkSize - 1, maxId);
+                    chunkCount++;
+                    try {
+                        // Each chunk commits on its own so a failure only affects that ID range
+                        rollupRows += chunkTransaction.execute(status -> rollupService.rebuildForHabitRange(chunkFrom, chunkTo));
+                    } catch (RuntimeException e) {
+                        failedChunks++;
+                        logger.error("Rollup rebuild failed for habits {}-{}", chunkFrom, chunkTo, e);
+                    }
+                    logger.debug("Rollup rebuild progress: habits up to {} of {}", chunkTo, maxId);
+                }
+            }
+            
+            long durationMillis = (System.nanoTime() - start) / 1_000_000;
+            logger.info("Rollup rebuild finished in {} ms: {} chunks ({} failed), {} rollup rows written",
+                    durationMillis, chunkCount, failedChunks, rollupRows);
+            return new RollupRebuildReport(startedAt, durationMillis, chunkCount, failedChunks, rollupRows);
+        } finally {
+            running.set(false);
+        }
+    }
+}
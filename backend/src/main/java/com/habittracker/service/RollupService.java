@@ -0,0 +1,142 @@
+package com.habittracker.service;
+
+import com.habittracker.dto.HabitStatsResponse;
+import com.habittracker.dto.HabitView;
+import com.habittracker.dto.RollupDelta;
+import com.habittracker.entity.HabitCompletionRollup;
+import com.habittracker.entity.HabitCompletionRollup.Granularity;
+import com.habittracker.repository.HabitCompletionRollupRepository;
+import com.habittracker.repository.HabitLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Maintains completed-day counts per habit and week/month so completion rates over time are
+ * read from a handful of rollup rows instead of counting raw logs.
+ */
+@Service
+@Transactional
+public class RollupService {
+    
+    @Autowired
+    private HabitCompletionRollupRepository rollupRepository;
+    
+    @Autowired
+    private HabitLogRepository habitLogRepository;
+    
+    /**
+     * Records days whose completion state changed (true = now completed, false = no longer completed)
+     */
+    public void recordCompletionChanges(Long habitId, Map<LocalDate, Boolean> changes) {
+        Map<PeriodKey, Integer> deltas = new HashMap<>();
+        changes.forEach((date, completed) -> addDay(deltas, habitId, date, completed ? 1 : -1));
+        rollupRepository.applyDeltas(toDeltas(deltas));
+    }
+    
+    /**
+     * Recomputes all rollups of one habit from its logs
+     */
+    public void rebuildForHabit(Long habitId) {
+        rebuildForHabitRange(habitId, habitId);
+    }
+    
+    /**
+     * Recomputes the rollups of a habit ID range from habit_logs and returns the number of rollup rows written.
+     * Existing rows are deleted before the logs are read and the counts are then added rather than inserted,
+     * so completions committed concurrently by live writes are neither lost nor counted twice.
+     */
+    public int rebuildForHabitRange(Long fromId, Long toId) {
+        rollupRepository.deleteByHabitIdRange(fromId, toId);
+        
+        Map<PeriodKey, Integer> counts = new HashMap<>();
+        try (Stream<Object[]> completedDays = habitLogRepository.streamCompletedDaysByHabitIdRange(fromId, toId)) {
+            completedDays.forEach(row -> addDay(counts, (Long) row[0], (LocalDate) row[1], 1));
+        }
+        List<RollupDelta> deltas = toDeltas(counts);
+        rollupRepository.applyDeltas(deltas);
+        return deltas.size();
+    }
+    
+    public void deleteForHabit(Long habitId) {
+        rollupRepository.deleteByHabitId(habitId);
+    }
+    
+    /**
+     * Completion per period for the {@code periods} most recent weeks or months, oldest first.
+     * Days before the habit was created and after today are not counted as tracked days.
+     */
+    @Transactional(readOnly = true)
+    public HabitStatsResponse getStats(HabitView habit, Granularity granularity, int periods, LocalDate today) {
+        LocalDate lastPeriod = granularity.periodStart(today);
+        LocalDate firstPeriod = granularity.plusPeriods(lastPeriod, -(periods - 1));
+        LocalDate trackedFrom = habit.createdAt() != null ? habit.createdAt().toLocalDate() : firstPeriod;
+        
+        Map<LocalDate, Integer> completedByPeriod = new HashMap<>();
+        for (HabitCompletionRollup rollup : rollupRepository.findPeriods(habit.id(), granularity, firstPeriod, lastPeriod)) {
+            completedByPeriod.put(rollup.getPeriodStart(), rollup.getCompletedDays());
+        }
+        
+        List<HabitStatsResponse.PeriodStats> stats = new ArrayList<>(periods);
+        for (LocalDate start = firstPeriod; !start.isAfter(lastPeriod); start = granularity.plusPeriods(start, 1)) {
+            LocalDate end = granularity.periodEnd(start);
+            LocalDate countFrom = start.isBefore(trackedFrom) ? trackedFrom : start;
+            LocalDate countTo = end.isAfter(today) ? today : end;
+            int trackedDays = countFrom.isAfter(countTo) ? 0 : (int) (countTo.toEpochDay() - countFrom.toEpochDay() + 1);
+            stats.add(new HabitStatsResponse.PeriodStats(start, end, completedByPeriod.getOrDefault(start, 0), trackedDays));
+        }
+        return new HabitStatsResponse(habit.id(), granularity, stats);
+    }
+    
+    private static void addDay(Map<PeriodKey, Integer> deltas, Long habitId, LocalDate date, int delta) {
+        for (Granularity granularity : Granularity.values()) {
+            deltas.merge(new PeriodKey(habitId, granularity, granularity.periodStart(date)), delta, Integer::sum);
+        }
+    }
+    
+    private static List<RollupDelta> toDeltas(Map<PeriodKey, Integer> deltas) {
+        List<RollupDelta> result = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                result.add(new RollupDelta(key.habitId, key.granularity, key.periodStart, delta));
+            }
+        });
+        return result;
+    }
+    
+    private static final class PeriodKey {
+        private final Long habitId;
+        private final Granularity granularity;
+        private final LocalDate periodStart;
+        
+        PeriodKey(Long habitId, Granularity granularity, LocalDate periodStart) {
+            this.habitId = habitId;
+            this.granularity = granularity;
+            this.periodStart = periodStart;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PeriodKey)) {
+                return false;
+            }
+            PeriodKey other = (PeriodKey) o;
+            return habitId.equals(other.habitId) && granularity == other.granularity && periodStart.equals(other.periodStart);
+        }
+        
+        @Override
+        public int hashCode() {
+            return (habitId.hashCode() * 31 + granularity.hashCode()) * 31 + periodStart.hashCode();
+        }
+    }
+}
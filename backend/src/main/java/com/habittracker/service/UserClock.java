@@ -0,0 +1,64 @@
+package com.habittracker.service;
+
+import com.habittracker.cache.TtlCache;
+import com.habittracker.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * "Today" as seen by each user. A user's day starts at midnight in their own time zone, or in the
+ * default zone if they have not set one. Zones are cached, so resolving today is usually a map lookup.
+ */
+@Service
+public class UserClock {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Value("${habittracker.time.default-zone:}")
+    private String defaultZoneId;
+    
+    @Value("${habittracker.time.zone-cache.max-size:100000}")
+    private int zoneCacheMaxSize;
+    
+    @Value("${habittracker.time.zone-cache.ttl:PT1H}")
+    private Duration zoneCacheTtl;
+    
+    private ZoneId defaultZone;
+    private TtlCache<Long, ZoneId> zoneCache;
+    
+    @PostConstruct
+    void init() {
+        defaultZone = defaultZoneId == null || defaultZoneId.isBlank() ? ZoneId.systemDefault() : ZoneId.of(defaultZoneId);
+        zoneCache = new TtlCache<>("user-zones", zoneCacheMaxSize, zoneCacheTtl);
+    }
+    
+    public ZoneId getDefaultZone() {
+        return defaultZone;
+    }
+    
+    public ZoneId zoneOf(Long userId) {
+        ZoneId cached = zoneCache.get(userId, zone -> true);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = zoneCache.stamp(userId);
+        ZoneId zone = userRepository.findTimeZoneById(userId).map(ZoneId::of).orElse(defaultZone);
+        zoneCache.putIfNotInvalidated(userId, zone, stamp);
+        return zone;
+    }
+    
+    public LocalDate today(Long userId) {
+        return LocalDate.now(zoneOf(userId));
+    }
+    
+    public void invalidate(Long userId) {
+        zoneCache.invalidate(userId);
+    }
+}
@@ -1,13 +1,22 @@
 package com.habittracker.service;
 
 import com.habittracker.entity.User;
+import com.habittracker.leaderboard.LeaderboardService;
 import com.habittracker.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Transactional
@@ -16,47 +25,88 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private UserClock userClock;
+    
+    @Autowired
+    private LeaderboardService leaderboardService;
+    
+    /** Users whose activity has already been recorded on their current day, keyed to that day */
+    private final ConcurrentHashMap<Long, LocalDate> activeToday = new ConcurrentHashMap<>();
+    
     /**
      * Get or create a user with the given ID
      */
     public User getOrCreateUser(Long userId) {
-        Optional<User> userOpt = userRepository.findById(userId);
-        if (userOpt.isPresent()) {
-            return userOpt.get();
-        } else {
-            User newUser = new User(userId);
-            return userRepository.save(newUser);
-        }
+        return userRepository.findById(userId).orElseGet(() -> {
+            userRepository.insertIfAbsent(userId);
+            return userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        });
     }
     
     /**
-     * Update user's last activity date and calculate streak
+     * Update user's last activity date and calculate streak.
+     * Repeat calls on the same day skip the users table once the first one has committed.
      */
     public void updateUserActivity(Long userId) {
-        User user = getOrCreateUser(userId);
-        LocalDate today = LocalDate.now();
+        LocalDate today = userClock.today(userId);
+        if (today.equals(activeToday.get(userId))) {
+            meterRegistry.counter("habit.user.activity", "outcome", "skipped").increment();
+            return;
+        }
         
-        // If this is the first activity or a new day
-        if (user.getLastActivityDate() == null) {
-            user.setLastActivityDate(today);
-            user.setTotalStreak(1);
-        } else {
-            LocalDate lastActivity = user.getLastActivityDate();
-            long daysBetween = java.time.temporal.ChronoUnit.DAYS.between(lastActivity, today);
-            
-            if (daysBetween == 1) {
-                // Consecutive day - increase streak
-                user.setTotalStreak(user.getTotalStreak() + 1);
-                user.setLastActivityDate(today);
-            } else if (daysBetween > 1) {
-                // Gap of more than 1 day - reset streak
-                user.setTotalStreak(1);
-                user.setLastActivityDate(today);
-            }
-            // If daysBetween == 0, it's the same day, don't update
+        userRepository.insertIfAbsent(userId);
+        if (userRepository.recordActivity(userId, today, today.minusDays(1), LocalDateTime.now()) > 0) {
+            // Our own write is visible here; the board picks it up after commit
+            leaderboardService.recordUserStreak(userId, userRepository.findTotalStreakById(userId).orElse(0));
         }
+        meterRegistry.counter("habit.user.activity", "outcome", "updated").increment();
         
-        userRepository.save(user);
+        // Only remember the activity once it is durable; a rolled back write must be retried next time
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    activeToday.put(userId, today);
+                }
+            });
+        } else {
+            activeToday.put(userId, today);
+        }
+    }
+    
+    /**
+     * Drops activity entries for days that are over in every time zone; they can never match again
+     */
+    @Scheduled(fixedDelayString = "${habittracker.users.activity-prune-interval-ms:3600000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void pruneActivityGuard() {
+        LocalDate earliestToday = LocalDate.now(ZoneOffset.MIN);
+        activeToday.values().removeIf(day -> day.isBefore(earliestToday));
+    }
+    
+    /**
+     * Sets the zone that decides when the user's day starts, creating the user if needed
+     */
+    public void setTimeZone(Long userId, ZoneId zone) {
+        userRepository.insertIfAbsent(userId);
+        userRepository.updateTimeZone(userId, zone.getId(), LocalDateTime.now());
+        activeToday.remove(userId);
+        userClock.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // A concurrent read may have cached the old zone before the commit
+                    userClock.invalidate(userId);
+                    activeToday.remove(userId);
+                }
+            });
+        }
     }
     
     /**
@@ -65,7 +115,7 @@ public class UserService {
      */
     public void checkAndUpdateStreakAfterReset(Long userId) {
         User user = getOrCreateUser(userId);
-        LocalDate today = LocalDate.now();
+        LocalDate today = userClock.today(userId);
         
         if (user.getLastActivityDate() != null) {
             LocalDate lastActivity = user.getLastActivityDate();
@@ -76,16 +126,17 @@ public class UserService {
                 user.setTotalStreak(0);
                 user.setLastActivityDate(null);
                 userRepository.save(user);
+                leaderboardService.recordUserStreak(userId, 0);
             }
             // If daysBetween == 1, keep streak as is (user has 1 day to add habits)
         }
     }
     
     /**
-     * Get user's current streak
+     * Get user's current streak (0 for users without activity yet)
      */
+    @Transactional(readOnly = true)
     public Integer getUserStreak(Long userId) {
-        User user = getOrCreateUser(userId);
-        return user.getTotalStreak();
+        return userRepository.findTotalStreakById(userId).orElse(0);
     }
 }
@@ -0,0 +1,56 @@
+-- Baseline: the schema Hibernate generated from the entities (ddl-auto) before migrations were introduced.
+-- Habits and habit logs use pooled sequences; INCREMENT BY must match allocationSize = 50 on the entities.
+
+CREATE SEQUENCE habits_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE habit_logs_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id                 BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    total_streak       INTEGER      NOT NULL DEFAULT 0,
+    last_activity_date DATE,
+    created_at         TIMESTAMP(6) NOT NULL,
+    updated_at         TIMESTAMP(6)
+);
+
+CREATE TABLE habits (
+    id                  BIGINT PRIMARY KEY,
+    name                VARCHAR(255)     NOT NULL,
+    description         TEXT,
+    daily_goal          INTEGER          NOT NULL,
+    streak_count        INTEGER,
+    last_completed_date DATE,
+    progress_percent    DOUBLE PRECISION,
+    user_id             BIGINT           NOT NULL,
+    created_at          TIMESTAMP(6),
+    updated_at          TIMESTAMP(6)
+);
+
+CREATE TABLE habit_logs (
+    id              BIGINT PRIMARY KEY,
+    habit_id        BIGINT  NOT NULL REFERENCES habits (id),
+    date            DATE    NOT NULL,
+    completed_count INTEGER,
+    is_completed    BOOLEAN,
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    CONSTRAINT uk_habit_logs_habit_date UNIQUE (habit_id, date)
+);
+
+CREATE TABLE habit_completion_bitmaps (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    habit_id    BIGINT   NOT NULL,
+    bitmap_year INTEGER  NOT NULL,
+    bits        BYTEA    NOT NULL,
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT uk_habit_completion_bitmaps_habit_year UNIQUE (habit_id, bitmap_year)
+);
+
+CREATE TABLE habit_completion_rollups (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    habit_id       BIGINT      NOT NULL,
+    granularity    VARCHAR(10) NOT NULL CHECK (granularity IN ('WEEK', 'MONTH')),
+    period_start   DATE        NOT NULL,
+    completed_days INTEGER     NOT NULL,
+    updated_at     TIMESTAMP(6),
+    CONSTRAINT uk_habit_completion_rollups_period UNIQUE (habit_id, granularity, period_start)
+);
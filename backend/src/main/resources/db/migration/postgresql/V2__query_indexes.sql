@@ -0,0 +1,12 @@
+-- Indexes for the queries in HabitRepository and HabitLogRepository that the unique keys do not already serve.
+-- Lookups by (habit_id, date), keyset pages and streams over a habit's logs use uk_habit_logs_habit_date;
+-- bitmap and rollup reads use their unique keys; rollover and rebuild chunks range-scan primary keys.
+
+-- Dashboard: findByUserIdOrderByCreatedAtDesc reads the rows already in order, no sort step.
+-- Also serves findByUserId, countByUserId and resetDailyStateForUser through the user_id prefix.
+CREATE INDEX idx_habits_user_created ON habits (user_id, created_at DESC);
+
+-- Completed-day history: findCompletedByHabitIdOrderByDateDesc (bitmap rebuilds), countCompletedByHabitId,
+-- countCompletedByHabitIdAndDateAfter and streamCompletedDaysByHabitIdRange (rollup rebuilds).
+-- Partial, so taps below the daily goal do not grow it.
+CREATE INDEX idx_habit_logs_completed ON habit_logs (habit_id, date DESC) WHERE is_completed;
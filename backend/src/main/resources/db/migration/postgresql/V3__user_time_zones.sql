@@ -0,0 +1,11 @@
+-- Per-user day boundaries: NULL keeps the server's default zone (habittracker.time.default-zone)
+ALTER TABLE users ADD COLUMN time_zone VARCHAR(64);
+
+-- Zone-bucketed day rollover pages through users by zone in ID order
+CREATE INDEX idx_users_time_zone ON users (time_zone, id);
+
+-- The rollover reaches habits through their owner, so every habit owner needs a users row
+INSERT INTO users (id, total_streak, created_at, updated_at)
+SELECT DISTINCT h.user_id, 0, now(), now()
+FROM habits h
+WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.id = h.user_id);
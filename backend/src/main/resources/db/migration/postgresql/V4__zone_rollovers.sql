@@ -0,0 +1,6 @@
+-- Last local day each time zone was rolled over for, so a restart neither skips nor repeats a zone's rollover
+CREATE TABLE zone_rollovers (
+    zone_id             VARCHAR(64)  PRIMARY KEY,
+    rolled_over_through DATE         NOT NULL,
+    updated_at          TIMESTAMP(6)
+);
@@ -0,0 +1,109 @@
+package com.habittracker.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primary/replica routing on two H2 databases. The replica gets the schema but no replication, so a row
+ * written through the API exists on the primary only, and a read shows which database served it.
+ */
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.habittracker=INFO",
+        "logging.level.org.springframework.web=INFO",
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "habittracker.datasource.replica.enabled=true",
+        "habittracker.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "habittracker.datasource.replica.hikari.minimum-idle=1",
+        "habittracker.datasource.replica.read-your-writes-window=PT1M",
+        // Keep background jobs off the replica before it has a schema
+        "habittracker.leaderboard.rebuild-on-startup=false",
+        "habittracker.rollups.rebuild-on-startup=false",
+        "habittracker.rollover.cron=-"
+})
+class ReplicaRoutingTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+    
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+    
+    @BeforeEach
+    void copySchemaToReplica() {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        if (replicaJdbc.queryForObject("SELECT count(*) FROM information_schema.tables WHERE table_name = 'HABITS'", Integer.class) > 0) {
+            return;
+        }
+        for (String statement : new JdbcTemplate(primary).queryForList("SCRIPT NODATA", String.class)) {
+            replicaJdbc.execute(statement);
+        }
+    }
+    
+    @Test
+    void writesGoToThePrimary() throws Exception {
+        long habitId = createHabit();
+        
+        assertThat(countHabits(primary, habitId)).isEqualTo(1);
+        assertThat(countHabits(replica, habitId)).isZero();
+    }
+    
+    @Test
+    void readOnlyGetsGoToTheReplica() throws Exception {
+        long habitId = createHabit();
+        
+        mockMvc.perform(get("/api/habits/habit/{id}", habitId))
+                .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    void getsWithAFreshWriteCookieAreForcedToThePrimary() throws Exception {
+        long habitId = createHabit();
+        
+        mockMvc.perform(get("/api/habits/habit/{id}", habitId)
+                        .cookie(new Cookie(ReadYourWritesInterceptor.LAST_WRITE_COOKIE, Long.toString(System.currentTimeMillis()))))
+                .andExpect(status().isOk());
+        // Outside the window the replica serves the read again
+        mockMvc.perform(get("/api/habits/habit/{id}", habitId)
+                        .cookie(new Cookie(ReadYourWritesInterceptor.LAST_WRITE_COOKIE, Long.toString(System.currentTimeMillis() - 120_000))))
+                .andExpect(status().isNotFound());
+    }
+    
+    private long createHabit() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/habits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Water\",\"dailyGoal\":3,\"userId\":7}"))
+                .andExpect(status().isOk())
+                .andExpect(cookie().exists(ReadYourWritesInterceptor.LAST_WRITE_COOKIE))
+                .andReturn();
+        String body = result.getResponse().getContentAsString();
+        return Long.parseLong(body.replaceAll("^\\{\"id\":(\\d+),.*$", "$1"));
+    }
+    
+    private static int countHabits(DataSource dataSource, long habitId) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT count(*) FROM habits WHERE id = ?", Integer.class, habitId);
+    }
+}
@@ -0,0 +1,116 @@
+package com.habittracker.repository;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations on a real Postgres and starts the application on them with the postgres profile
+ * (ddl-auto=validate), so a migration that drifts from the entities fails the context. Then checks that the
+ * hot repository queries are planned as index scans on a seeded data set.
+ * Needs Docker: run with {@code mvn test -Ppostgres-it}.
+ */
+@Tag("postgres")
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("postgres")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.habittracker=INFO",
+        "logging.level.org.springframework.web=INFO",
+        // Keep background jobs off the seeded data
+        "habittracker.leaderboard.rebuild-on-startup=false",
+        "habittracker.rollups.rebuild-on-startup=false",
+        "habittracker.rollover.cron=-"
+})
+class PostgresMigrationTest {
+    
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void allMigrationsAreAppliedAndMatchTheEntities() throws IOException {
+        // Reaching this point means Hibernate validated every entity against the migrated schema
+        int migrations = new PathMatchingResourcePatternResolver()
+                .getResources("classpath:db/migration/postgresql/V*.sql").length;
+        
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM flyway_schema_history WHERE success AND version IS NOT NULL", Integer.class))
+                .isEqualTo(migrations);
+    }
+    
+    @Test
+    void hotQueriesArePlannedAsIndexScans() {
+        seed();
+        
+        Map<String, String> queries = new LinkedHashMap<>();
+        // HabitRepository
+        queries.put("findDashboardRows (dashboard)",
+                "SELECT * FROM habits WHERE user_id = 42 ORDER BY created_at DESC");
+        queries.put("countByUserId",
+                "SELECT count(*) FROM habits WHERE user_id = 42");
+        queries.put("resetDailyStateForUsers (rollover chunk)",
+                "SELECT * FROM habits WHERE user_id IN (1, 2, 3)");
+        // HabitLogRepository
+        queries.put("findByHabitIdInAndDate (dashboard today logs)",
+                "SELECT * FROM habit_logs WHERE habit_id IN (1, 2, 3) AND date = current_date");
+        queries.put("findByHabitIdBefore (keyset page)",
+                "SELECT * FROM habit_logs WHERE habit_id = 42 AND date < current_date - 30 ORDER BY date DESC LIMIT 101");
+        queries.put("findByHabitIdAndDateAfter",
+                "SELECT * FROM habit_logs WHERE habit_id = 42 AND date >= current_date - 30 ORDER BY date DESC");
+        queries.put("findCompletedByHabitIdOrderByDateDesc (bitmap rebuild)",
+                "SELECT * FROM habit_logs WHERE habit_id = 42 AND is_completed ORDER BY date DESC");
+        queries.put("countCompletedByHabitIdAndDateAfter",
+                "SELECT count(*) FROM habit_logs WHERE habit_id = 42 AND date >= current_date - 30 AND is_completed");
+        // Chunks cover a small slice of all habits in production; 100 of the 10,000 seeded habits keeps the same selectivity
+        queries.put("streamCompletedDaysByHabitIdRange (rollup rebuild chunk)",
+                "SELECT habit_id, date FROM habit_logs WHERE is_completed AND habit_id BETWEEN 1 AND 100");
+        // Derived tables
+        queries.put("findPeriods (stats)",
+                "SELECT * FROM habit_completion_rollups WHERE habit_id = 42 AND granularity = 'WEEK' " +
+                "AND period_start BETWEEN current_date - 84 AND current_date ORDER BY period_start");
+        
+        queries.forEach((label, query) -> {
+            String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query, String.class));
+            assertThat(plan).as("%s is planned with a sequential scan:%n%s", label, plan).doesNotContain("Seq Scan");
+        });
+    }
+    
+    /**
+     * 2,000 users, 10,000 habits and a year of logs per habit (3.65M rows)
+     */
+    private void seed() {
+        jdbcTemplate.execute(
+                "INSERT INTO users (id, total_streak, last_activity_date, created_at, updated_at) " +
+                "SELECT u, 0, current_date - (u % 3), now(), now() FROM generate_series(1, 2000) u");
+        jdbcTemplate.execute(
+                "INSERT INTO habits (id, name, daily_goal, streak_count, last_completed_date, progress_percent, user_id, created_at, updated_at) " +
+                "SELECT h, 'Habit ' || h, 3, 0, current_date - (h % 5), 0.0, (h % 2000) + 1, now() - (h % 365) * interval '1 day', now() " +
+                "FROM generate_series(1, 10000) h");
+        // Two out of three days reach the daily goal
+        jdbcTemplate.execute(
+                "INSERT INTO habit_logs (id, habit_id, date, completed_count, is_completed, created_at, updated_at) " +
+                "SELECT h * 400 + d, h, current_date - d, CASE WHEN (h + d) % 3 = 0 THEN 1 ELSE 3 END, (h + d) % 3 <> 0, now(), now() " +
+                "FROM generate_series(1, 10000) h, generate_series(0, 364) d");
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("ANALYZE habits");
+        jdbcTemplate.execute("ANALYZE habit_logs");
+    }
+}
@@ -0,0 +1,86 @@
+package com.habittracker.service;
+
+import com.habittracker.entity.Habit;
+import com.habittracker.entity.HabitLog;
+import com.habittracker.repository.HabitLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parallel taps on one habit and day, starting from no log at all, must each add exactly one completion
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.com.habittracker=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+class HabitLogConcurrencyTest {
+    
+    private static final int TAPS = 32;
+    
+    @Autowired
+    private HabitService habitService;
+    
+    @Autowired
+    private HabitLogRepository habitLogRepository;
+    
+    @Autowired
+    private UserClock userClock;
+    
+    @Test
+    void parallelTapsIncludingTheFirstOfTheDayAreAllCounted() throws Exception {
+        HabitLog log = tapInParallel(TAPS);
+        
+        assertThat(log.getCompletedCount()).isEqualTo(TAPS);
+        assertThat(log.getIsCompleted()).isTrue();
+    }
+    
+    @Test
+    void parallelTapsBelowTheGoalLeaveTheDayIncomplete() throws Exception {
+        HabitLog log = tapInParallel(TAPS + 1);
+        
+        assertThat(log.getCompletedCount()).isEqualTo(TAPS);
+        assertThat(log.getIsCompleted()).isFalse();
+    }
+    
+    /**
+     * Fires TAPS simultaneous markHabitDone calls on a new habit with the given goal and returns the resulting log
+     */
+    private HabitLog tapInParallel(int dailyGoal) throws Exception {
+        Habit habit = habitService.createHabit(new Habit("Water", null, dailyGoal, 1L));
+        LocalDate today = userClock.today(habit.getUserId());
+        
+        ExecutorService executor = Executors.newFixedThreadPool(TAPS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<HabitLog>> taps = new ArrayList<>();
+            for (int i = 0; i < TAPS; i++) {
+                taps.add(executor.submit(() -> {
+                    start.await();
+                    return habitService.markHabitDone(habit.getId());
+                }));
+            }
+            start.countDown();
+            // get() rethrows any failed tap, e.g. a violation of the (habit_id, date) unique key
+            for (Future<HabitLog> tap : taps) {
+                assertThat(tap.get(30, TimeUnit.SECONDS).getHabitId()).isEqualTo(habit.getId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        return habitLogRepository.findByHabitIdAndDate(habit.getId(), today).orElseThrow();
+    }
+}
@@ -0,0 +1,123 @@
+package com.habittracker.benchmarks;
+
+import com.habittracker.dto.HabitDashboardRow;
+import com.habittracker.dto.HabitLogView;
+import com.habittracker.dto.HabitResponse;
+import com.habittracker.entity.Habit;
+import com.habittracker.entity.HabitCompletionBitmap;
+import com.habittracker.entity.HabitLog;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic fixtures shared by the benchmarks
+ */
+final class BenchmarkData {
+    
+    private static final long SEED = 42L;
+    
+    private BenchmarkData() {
+    }
+    
+    static List<Habit> habits(int count, long userId) {
+        List<Habit> habits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Habit habit = new Habit("Habit " + i, "Description of habit number " + i + " with some text", 1 + i % 5, userId);
+            habit.setId((long) i + 1);
+            habit.setStreakCount(i * 3);
+            habit.setProgressPercent(i % 2 == 0 ? 100.0 : 40.0);
+            habit.setLastCompletedDate(LocalDate.now());
+            habits.add(habit);
+        }
+        return habits;
+    }
+    
+    /**
+     * Dashboard projection rows, as HabitRepository.findDashboardRows returns them, each with today's log
+     */
+    static List<HabitDashboardRow> dashboardRows(List<Habit> habits) {
+        List<HabitDashboardRow> rows = new ArrayList<>(habits.size());
+        for (Habit habit : habits) {
+            rows.add(new HabitDashboardRow(habit.getId(), habit.getName(), habit.getDescription(), habit.getDailyGoal(),
+                    habit.getStreakCount(), habit.getLastCompletedDate(), habit.getUserId(), LocalDateTime.now(),
+                    LocalDateTime.now(), habit.getDailyGoal(), true));
+        }
+        return rows;
+    }
+    
+    static List<HabitResponse> dashboard(int habitCount) {
+        List<HabitResponse> responses = new ArrayList<>(habitCount);
+        for (HabitDashboardRow row : dashboardRows(habits(habitCount, 1L))) {
+            responses.add(new HabitResponse(row, row.streakCount(), 100.0, row.completedToday(), row.completedCountToday()));
+        }
+        return responses;
+    }
+    
+    /**
+     * Completed days over the given number of days ending today, newest first, with roughly
+     * one missed day in {@code missEvery} (the current run always ends today).
+     */
+    static List<LocalDate> completedDates(int days, int missEvery) {
+        Random random = new Random(SEED);
+        LocalDate today = LocalDate.now();
+        List<LocalDate> dates = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            if (i < days / 2 || random.nextInt(missEvery) != 0) {
+                dates.add(today.minusDays(i));
+            }
+        }
+        return dates;
+    }
+    
+    static List<HabitLog> completedLogs(List<LocalDate> completedDates) {
+        List<HabitLog> logs = new ArrayList<>(completedDates.size());
+        for (LocalDate date : completedDates) {
+            logs.add(new HabitLog(1L, date, 1));
+        }
+        return logs;
+    }
+    
+    /**
+     * One habit's log history, newest first, as returned by GET /api/habits/{id}/logs
+     */
+    static List<HabitLogView> logHistory(int days) {
+        Random random = new Random(SEED);
+        LocalDate today = LocalDate.now();
+        List<HabitLogView> logs = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            LocalDate date = today.minusDays(i);
+            int completedCount = 1 + random.nextInt(3);
+            LocalDateTime createdAt = date.atTime(7, random.nextInt(60), random.nextInt(60), random.nextInt(1_000_000_000));
+            logs.add(new HabitLogView((long) days - i, 1L, date, completedCount, completedCount >= 2,
+                    createdAt, createdAt.plusHours(random.nextInt(12)).plusNanos(random.nextInt(1_000_000_000))));
+        }
+        return logs;
+    }
+    
+    /**
+     * Year bitmaps for the given completed dates, newest year first, as stored in habit_completion_bitmaps
+     */
+    static List<HabitCompletionBitmap> yearBitmaps(List<LocalDate> completedDates) {
+        List<HabitCompletionBitmap> bitmaps = new ArrayList<>();
+        int newestYear = completedDates.get(0).getYear();
+        int oldestYear = completedDates.get(completedDates.size() - 1).getYear();
+        for (int year = newestYear; year >= oldestYear; year--) {
+            BitSet bits = new BitSet(Year.of(year).length());
+            for (LocalDate date : completedDates) {
+                if (date.getYear() == year) {
+                    bits.set(date.getDayOfYear() - 1);
+                }
+            }
+            HabitCompletionBitmap bitmap = new HabitCompletionBitmap(1L, year);
+            bitmap.setBits(bits.toByteArray());
+            bitmaps.add(bitmap);
+        }
+        return bitmaps;
+    }
+}
@@ -0,0 +1,38 @@
+package com.habittracker.benchmarks;
+
+import com.habittracker.dto.HabitDashboardRow;
+import com.habittracker.dto.HabitResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping a user's dashboard projection rows (habits joined with today's logs) to the HabitResponse list
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HabitResponseMappingBenchmark {
+    
+    @Param({"10", "30", "300"})
+    private int habitCount;
+    
+    private List<HabitDashboardRow> rows;
+    
+    @Setup
+    public void setUp() {
+        rows = BenchmarkData.dashboardRows(BenchmarkData.habits(habitCount, 1L));
+    }
+    
+    @Benchmark
+    public void mapDashboard(Blackhole blackhole) {
+        for (HabitDashboardRow row : rows) {
+            blackhole.consume(new HabitResponse(row, row.streakCount(), 100.0, row.completedToday(), row.completedCountToday()));
+        }
+    }
+}
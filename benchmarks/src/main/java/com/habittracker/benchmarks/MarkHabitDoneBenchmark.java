@@ -0,0 +1,63 @@
+package com.habittracker.benchmarks;
+
+import com.habittracker.HabitTrackerBackendApplication;
+import com.habittracker.entity.Habit;
+import com.habittracker.entity.HabitLog;
+import com.habittracker.service.HabitService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HabitService.markHabitDone end to end (transaction, upsert, streak and user activity) against embedded H2
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MarkHabitDoneBenchmark {
+    
+    private static final int HABITS = 100;
+    
+    private ConfigurableApplicationContext context;
+    private HabitService habitService;
+    private final List<Long> habitIds = new ArrayList<>();
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void startBackend() {
+        context = new SpringApplicationBuilder(HabitTrackerBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.habittracker=WARN",
+                        "logging.level.org.springframework=WARN",
+                        "logging.level.org.hibernate=WARN")
+                .run();
+        habitService = context.getBean(HabitService.class);
+        for (int i = 0; i < HABITS; i++) {
+            Habit habit = habitService.createHabit(new Habit("Habit " + i, null, 5, (long) (i % 10) + 1));
+            habitIds.add(habit.getId());
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopBackend() {
+        context.close();
+    }
+    
+    @Benchmark
+    public HabitLog markHabitDone() {
+        Long habitId = habitIds.get(next++ % HABITS);
+        return habitService.markHabitDone(habitId, LocalDate.now());
+    }
+}
@@ -0,0 +1,95 @@
+package com.habittracker.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.habittracker.dto.HabitLogView;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization of a habit's log history in each negotiable response format, with and without gzip
+ * (Tomcat's default compression level). Payload sizes are printed by {@link #main}; this benchmark
+ * measures the CPU side.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadFormatBenchmark {
+    
+    @Param({"json", "cbor", "smile"})
+    private String format;
+    
+    @Param({"false", "true"})
+    private boolean gzip;
+    
+    @Param({"365", "3650"})
+    private int historyDays;
+    
+    private ObjectMapper objectMapper;
+    private List<HabitLogView> logs;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = mapper(format);
+        logs = BenchmarkData.logHistory(historyDays);
+    }
+    
+    @Benchmark
+    public byte[] serializeLogHistory() throws IOException {
+        return encode(objectMapper, logs, gzip);
+    }
+    
+    /**
+     * Configured like the converters Spring MVC registers for each media type
+     */
+    static ObjectMapper mapper(String format) {
+        ObjectMapper mapper = switch (format) {
+            case "json" -> new ObjectMapper();
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+        return mapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+    
+    static byte[] encode(ObjectMapper mapper, Object payload, boolean gzip) throws IOException {
+        byte[] bytes = mapper.writeValueAsBytes(payload);
+        if (!gzip) {
+            return bytes;
+        }
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+    
+    /**
+     * Prints the payload size table: java -cp target/benchmarks.jar com.habittracker.benchmarks.PayloadFormatBenchmark
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.printf("%-6s %10s %12s %12s %8s%n", "format", "days", "bytes", "gzip bytes", "vs json");
+        for (int days : new int[] {365, 3650}) {
+            List<HabitLogView> logs = BenchmarkData.logHistory(days);
+            int jsonBytes = encode(mapper("json"), logs, false).length;
+            for (String format : new String[] {"json", "cbor", "smile"}) {
+                ObjectMapper mapper = mapper(format);
+                int plain = encode(mapper, logs, false).length;
+                int compressed = encode(mapper, logs, true).length;
+                System.out.printf("%-6s %10d %12d %12d %7.0f%%%n", format, days, plain, compressed, 100.0 * plain / jsonBytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.habittracker.benchmarks;
+
+import com.habittracker.entity.HabitCompletionBitmap;
+import com.habittracker.entity.HabitLog;
+import com.habittracker.service.CompletionBitmapService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streak computation over long histories: the original walk over completed HabitLog entities
+ * against the completion bitmap walk used by HabitService today.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreakBenchmark {
+    
+    // ~1 month, 1 year and 3 years of daily history
+    @Param({"30", "365", "1095"})
+    private int historyDays;
+    
+    private List<HabitLog> completedLogs;
+    private List<HabitCompletionBitmap> yearBitmaps;
+    private LocalDate today;
+    
+    @Setup
+    public void setUp() {
+        List<LocalDate> completedDates = BenchmarkData.completedDates(historyDays, 10);
+        completedLogs = BenchmarkData.completedLogs(completedDates);
+        yearBitmaps = BenchmarkData.yearBitmaps(completedDates);
+        today = LocalDate.now();
+    }
+    
+    @Benchmark
+    public int logScan() {
+        // Former HabitService.calculateStreakCount: two passes over every completed log
+        boolean todayCompleted = false;
+        for (HabitLog log : completedLogs) {
+            if (log.getDate().equals(today) && log.getIsCompleted()) {
+                todayCompleted = true;
+                break;
+            }
+        }
+        LocalDate startDate = todayCompleted ? today : today.minusDays(1);
+        
+        int streak = 0;
+        for (HabitLog log : completedLogs) {
+            if (log.getDate().equals(startDate.minusDays(streak))) {
+                streak++;
+            } else {
+                break;
+            }
+        }
+        return streak;
+    }
+    
+    @Benchmark
+    public int bitmapWalk() {
+        return CompletionBitmapService.latestStreak(yearBitmaps).getStreak();
+    }
+}
@@ -0,0 +1,94 @@
+package com.habittracker.benchmarks;
+
+import com.habittracker.HabitTrackerBackendApplication;
+import com.habittracker.entity.Habit;
+import com.habittracker.service.HabitService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard requests over HTTP with Tomcat on platform threads vs. virtual threads. Each invocation
+ * fires {@code concurrency} simultaneous GET /api/habits/{userId} requests and waits for all of them.
+ * The virtual mode only differs from the platform mode when run on a Java 21+ JVM.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadingModeBenchmark {
+    
+    private static final int USERS = 500;
+    private static final int HABITS_PER_USER = 8;
+    
+    @Param({"platform", "virtual"})
+    public String threads;
+    
+    @Param({"64", "512"})
+    public int concurrency;
+    
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private int nextUser;
+    
+    @Setup(Level.Trial)
+    public void startBackend() {
+        context = new SpringApplicationBuilder(HabitTrackerBackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + "virtual".equals(threads),
+                        "spring.datasource.url=jdbc:h2:mem:threading-" + threads + ";DB_CLOSE_DELAY=-1",
+                        // Same pool and admission policy in both modes; the cache is off so every request hits the database
+                        "habittracker.cache.dashboard.max-size=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.habittracker=WARN",
+                        "logging.level.org.springframework=WARN",
+                        "logging.level.org.hibernate=WARN")
+                .run();
+        HabitService habitService = context.getBean(HabitService.class);
+        for (long userId = 1; userId <= USERS; userId++) {
+            for (int i = 0; i < HABITS_PER_USER; i++) {
+                habitService.createHabit(new Habit("Habit " + i, null, 3, userId));
+            }
+        }
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/habits/";
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopBackend() {
+        context.close();
+    }
+    
+    @Benchmark
+    public int dashboardBurst() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            long userId = (nextUser++ % USERS) + 1;
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + userId)).GET().build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int failed = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() != 200) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+}
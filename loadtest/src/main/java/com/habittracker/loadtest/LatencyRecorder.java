@@ -0,0 +1,60 @@
+package com.habittracker.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Raw latencies of one operation, recorded by a single worker thread and merged after the run.
+ * Keeping every sample makes the percentiles exact; a minute of load is a few MB at most.
+ */
+final class LatencyRecorder {
+    
+    private long[] nanos = new long[1024];
+    private int count;
+    private long errors;
+    
+    void record(long latencyNanos) {
+        if (count == nanos.length) {
+            nanos = Arrays.copyOf(nanos, count * 2);
+        }
+        nanos[count++] = latencyNanos;
+    }
+    
+    void recordError() {
+        errors++;
+    }
+    
+    int count() {
+        return count;
+    }
+    
+    long errors() {
+        return errors;
+    }
+    
+    static LatencyRecorder merge(Iterable<LatencyRecorder> recorders) {
+        LatencyRecorder merged = new LatencyRecorder();
+        for (LatencyRecorder recorder : recorders) {
+            for (int i = 0; i < recorder.count; i++) {
+                merged.record(recorder.nanos[i]);
+            }
+            merged.errors += recorder.errors;
+        }
+        Arrays.sort(merged.nanos, 0, merged.count);
+        return merged;
+    }
+    
+    /**
+     * Nearest-rank percentile in milliseconds; only valid on a merged (sorted) recorder
+     */
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return nanos[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+    
+    double maxMillis() {
+        return count == 0 ? 0 : nanos[count - 1] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,269 @@
+package com.habittracker.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.habittracker.HabitTrackerBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of loadtest.jar. Starts the backend in this JVM (unless --base-url points at a running one),
+ * creates N users with M habits each over the API, then runs closed-loop workers issuing dashboard loads,
+ * taps and partial updates in the configured mix. After a warmup, it measures throughput and per-endpoint
+ * latency percentiles, plus the SQL statements the backend reports for the measured window.
+ */
+public class LoadTest {
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final LoadTestOptions options;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+    private String baseUrl;
+    private long[][] habitIds;
+    private int[][] dailyGoals;
+    
+    private LoadTest(LoadTestOptions options) {
+        this.options = options;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext backend = null;
+        try {
+            LoadTest loadTest = new LoadTest(options);
+            if (options.baseUrl != null) {
+                loadTest.baseUrl = options.baseUrl;
+            } else {
+                backend = startBackend(options);
+                loadTest.baseUrl = "http://localhost:" + ((WebServerApplicationContext) backend).getWebServer().getPort();
+            }
+            LoadTestReport report = loadTest.run();
+            System.out.print(report.toText());
+            Path resultFile = Path.of(options.resultFile);
+            if (resultFile.getParent() != null) {
+                Files.createDirectories(resultFile.getParent());
+            }
+            loadTest.objectMapper.writeValue(resultFile.toFile(), report);
+            System.out.println("Result written to " + resultFile);
+        } finally {
+            if (backend != null) {
+                backend.close();
+            }
+        }
+    }
+    
+    private static ConfigurableApplicationContext startBackend(LoadTestOptions options) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        if (options.jdbcUrl != null) {
+            // A scratch database: the schema is created from the entities and dropped afterwards
+            properties.put("spring.datasource.url", options.jdbcUrl);
+            properties.put("spring.datasource.driverClassName", "org.postgresql.Driver");
+            properties.put("spring.datasource.username", options.dbUser);
+            properties.put("spring.datasource.password", options.dbPassword);
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+        } else {
+            properties.put("spring.datasource.url", "jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        }
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.flyway.enabled", "false");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.main.log-startup-info", "false");
+        properties.put("logging.level.com.habittracker", "WARN");
+        properties.put("logging.level.org.springframework", "WARN");
+        properties.put("logging.level.org.hibernate", "WARN");
+        properties.putAll(options.backendProperties);
+        return new SpringApplicationBuilder(HabitTrackerBackendApplication.class).properties(properties).run();
+    }
+    
+    private LoadTestReport run() throws Exception {
+        seed();
+        
+        if (options.warmupSeconds > 0) {
+            System.out.printf("Warming up for %d s%n", options.warmupSeconds);
+            runWorkers(options.warmupSeconds, 1);
+        }
+        
+        System.out.printf("Measuring for %d s with %d workers%n", options.durationSeconds, options.concurrency);
+        LocalDateTime startedAt = LocalDateTime.now();
+        PrometheusSnapshot before = scrapeMetrics();
+        long start = System.nanoTime();
+        Map<Operation, LatencyRecorder> results = runWorkers(options.durationSeconds, 2);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        PrometheusSnapshot after = scrapeMetrics();
+        
+        List<LoadTestReport.EndpointResult> endpoints = new ArrayList<>();
+        long requests = 0;
+        long errors = 0;
+        long sqlStatements = 0;
+        for (Map.Entry<Operation, LatencyRecorder> result : results.entrySet()) {
+            LatencyRecorder latencies = result.getValue();
+            long endpointSql = after.sqlStatementsSince(before, result.getKey());
+            endpoints.add(new LoadTestReport.EndpointResult(result.getKey().endpoint(), latencies.count(), latencies.errors(),
+                    latencies.count() / elapsedSeconds, latencies.percentileMillis(50), latencies.percentileMillis(95),
+                    latencies.percentileMillis(99), latencies.maxMillis(), endpointSql,
+                    latencies.count() == 0 ? 0.0 : (double) endpointSql / latencies.count()));
+            requests += latencies.count();
+            errors += latencies.errors();
+            sqlStatements += endpointSql;
+        }
+        
+        Map<String, Object> configuration = new LinkedHashMap<>();
+        configuration.put("users", options.users);
+        configuration.put("habitsPerUser", options.habitsPerUser);
+        configuration.put("concurrency", options.concurrency);
+        configuration.put("thinkTimeMillis", options.thinkTimeMillis);
+        configuration.put("mix", options.mix);
+        configuration.put("database", options.baseUrl != null ? "external" : options.jdbcUrl != null ? "postgres" : "h2");
+        return new LoadTestReport(startedAt, configuration, options.durationSeconds, requests, errors,
+                requests / elapsedSeconds, sqlStatements, endpoints);
+    }
+    
+    /**
+     * Creates the users' habits through the API so that the same path works against an external backend
+     */
+    private void seed() throws Exception {
+        System.out.printf("Creating %d users with %d habits each%n", options.users, options.habitsPerUser);
+        habitIds = new long[options.users][options.habitsPerUser];
+        dailyGoals = new int[options.users][options.habitsPerUser];
+        ExecutorService seeders = Executors.newFixedThreadPool(options.concurrency);
+        try {
+            List<Future<?>> users = new ArrayList<>();
+            for (int u = 0; u < options.users; u++) {
+                int user = u;
+                users.add(seeders.submit(() -> {
+                    for (int h = 0; h < options.habitsPerUser; h++) {
+                        int dailyGoal = 1 + (user + h) % 5;
+                        Map<String, Object> habit = Map.of("name", "Habit " + h, "description", "Load test habit",
+                                "dailyGoal", dailyGoal, "userId", userId(user));
+                        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/habits"))
+                                .timeout(REQUEST_TIMEOUT)
+                                .header("Content-Type", "application/json")
+                                .header("Accept", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(habit)))
+                                .build(), HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("Creating a habit failed with status " + response.statusCode());
+                        }
+                        habitIds[user][h] = objectMapper.readTree(response.body()).get("id").asLong();
+                        dailyGoals[user][h] = dailyGoal;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> user : users) {
+                user.get();
+            }
+        } finally {
+            seeders.shutdownNow();
+        }
+    }
+    
+    /**
+     * Runs the workers for the given time and returns their merged latencies per operation
+     */
+    private Map<Operation, LatencyRecorder> runWorkers(int seconds, int phase) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency);
+        try {
+            List<Future<Map<Operation, LatencyRecorder>>> futures = new ArrayList<>();
+            for (int w = 0; w < options.concurrency; w++) {
+                Random random = new Random(options.seed + phase * 1_000_003L + w);
+                futures.add(workers.submit(() -> work(random, deadline)));
+            }
+            
+            Map<Operation, List<LatencyRecorder>> perOperation = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, LatencyRecorder>> future : futures) {
+                future.get().forEach((operation, recorder) ->
+                        perOperation.computeIfAbsent(operation, o -> new ArrayList<>()).add(recorder));
+            }
+            Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+            perOperation.forEach((operation, recorders) -> merged.put(operation, LatencyRecorder.merge(recorders)));
+            return merged;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+    
+    private Map<Operation, LatencyRecorder> work(Random random, long deadline) throws InterruptedException {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        int totalWeight = options.mix.values().stream().mapToInt(Integer::intValue).sum();
+        while (System.nanoTime() < deadline) {
+            Operation operation = pick(random.nextInt(totalWeight));
+            int user = random.nextInt(options.users);
+            int habit = random.nextInt(options.habitsPerUser);
+            String path = switch (operation) {
+                case DASHBOARD -> "/api/habits/" + userId(user);
+                case TAP -> "/api/habits/" + habitIds[user][habit] + "/log";
+                case PARTIAL -> "/api/habits/" + habitIds[user][habit] + "/log/" + random.nextInt(dailyGoals[user][habit] + 1);
+            };
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Accept", "application/json");
+            request = operation == Operation.DASHBOARD ? request.GET() : request.POST(HttpRequest.BodyPublishers.noBody());
+            
+            LatencyRecorder recorder = recorders.computeIfAbsent(operation, o -> new LatencyRecorder());
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 == 2) {
+                    recorder.record(System.nanoTime() - start);
+                } else {
+                    recorder.recordError();
+                }
+            } catch (IOException e) {
+                recorder.recordError();
+            }
+            if (options.thinkTimeMillis > 0) {
+                Thread.sleep(options.thinkTimeMillis);
+            }
+        }
+        return recorders;
+    }
+    
+    private Operation pick(int roll) {
+        for (Map.Entry<Operation, Integer> weight : options.mix.entrySet()) {
+            roll -= weight.getValue();
+            if (roll < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Roll outside of the mix weights");
+    }
+    
+    private PrometheusSnapshot scrapeMetrics() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/prometheus"))
+                .timeout(REQUEST_TIMEOUT).GET().build(), HttpResponse.BodyHandlers.ofString());
+        return PrometheusSnapshot.parse(response.body());
+    }
+    
+    private static long userId(int user) {
+        return user + 1L;
+    }
+}
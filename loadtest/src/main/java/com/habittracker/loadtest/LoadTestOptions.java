@@ -0,0 +1,92 @@
+package com.habittracker.loadtest;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line options of the load test, given as --name=value. Options starting with --spring. or
+ * --habittracker. are passed through to the embedded backend.
+ */
+final class LoadTestOptions {
+    
+    int users = 1000;
+    int habitsPerUser = 8;
+    int concurrency = 64;
+    int warmupSeconds = 10;
+    int durationSeconds = 60;
+    long thinkTimeMillis = 0;
+    long seed = 42L;
+    String baseUrl;
+    String jdbcUrl;
+    String dbUser = "postgres";
+    String dbPassword = "postgres";
+    String resultFile = "target/loadtest-result.json";
+    final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    final Map<String, String> backendProperties = new LinkedHashMap<>();
+    
+    private LoadTestOptions() {
+        // Mostly dashboard loads, taps far more often than absolute count corrections
+        mix.put(Operation.DASHBOARD, 70);
+        mix.put(Operation.TAP, 25);
+        mix.put(Operation.PARTIAL, 5);
+    }
+    
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.startsWith("spring.") || name.startsWith("habittracker.")) {
+                options.backendProperties.put(name, value);
+                continue;
+            }
+            switch (name) {
+                case "users" -> options.users = positive(name, value);
+                case "habits" -> options.habitsPerUser = positive(name, value);
+                case "concurrency" -> options.concurrency = positive(name, value);
+                case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+                case "duration" -> options.durationSeconds = positive(name, value);
+                case "think-ms" -> options.thinkTimeMillis = Long.parseLong(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                case "base-url" -> options.baseUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "jdbc-url" -> options.jdbcUrl = value;
+                case "db-user" -> options.dbUser = value;
+                case "db-password" -> options.dbPassword = value;
+                case "out" -> options.resultFile = value;
+                case "mix" -> options.parseMix(value);
+                default -> throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        return options;
+    }
+    
+    /**
+     * Relative weights such as dashboard:70,tap:25,partial:5; operations left out get weight 0
+     */
+    private void parseMix(String value) {
+        mix.replaceAll((operation, weight) -> 0);
+        for (String part : value.split(",")) {
+            String[] weight = part.split(":");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight in --mix, got " + part);
+            }
+            mix.put(Operation.valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(weight[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+    }
+    
+    private static int positive(String name, String value) {
+        int parsed = Integer.parseInt(value);
+        if (parsed < 1) {
+            throw new IllegalArgumentException("--" + name + " must be at least 1");
+        }
+        return parsed;
+    }
+}
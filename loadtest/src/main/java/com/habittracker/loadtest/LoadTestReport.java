@@ -0,0 +1,49 @@
+package com.habittracker.loadtest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of one measured run; serialized as is to the JSON result file
+ */
+record LoadTestReport(
+        LocalDateTime startedAt,
+        Map<String, Object> configuration,
+        int durationSeconds,
+        long requests,
+        long errors,
+        double throughputPerSecond,
+        long sqlStatements,
+        List<EndpointResult> endpoints) {
+    
+    record EndpointResult(
+            String endpoint,
+            long requests,
+            long errors,
+            double throughputPerSecond,
+            double p50Millis,
+            double p95Millis,
+            double p99Millis,
+            double maxMillis,
+            long sqlStatements,
+            double sqlStatementsPerRequest) {
+    }
+    
+    String toText() {
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Load test started %s, measured for %d s with %s%n",
+                startedAt, durationSeconds, configuration));
+        text.append(String.format("%-44s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "SQL/req"));
+        for (EndpointResult endpoint : endpoints) {
+            text.append(String.format("%-44s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.endpoint(), endpoint.requests(), endpoint.errors(), endpoint.throughputPerSecond(),
+                    endpoint.p50Millis(), endpoint.p95Millis(), endpoint.p99Millis(), endpoint.maxMillis(),
+                    endpoint.sqlStatementsPerRequest()));
+        }
+        text.append(String.format("%-44s %10d %8d %10.1f %9s %9s %9s %9s %9.2f%n", "total", requests, errors, throughputPerSecond,
+                "", "", "", "", requests == 0 ? 0.0 : (double) sqlStatements / requests));
+        return text.toString();
+    }
+}
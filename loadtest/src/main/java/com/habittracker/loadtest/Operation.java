@@ -0,0 +1,32 @@
+package com.habittracker.loadtest;
+
+/**
+ * Request types issued by the simulated users, with the URI pattern the backend reports them under
+ * in http_server_requests_seconds and habit_http_sql_statements
+ */
+enum Operation {
+    
+    DASHBOARD("GET", "/api/habits/{userId}"),
+    TAP("POST", "/api/habits/{id}/log"),
+    PARTIAL("POST", "/api/habits/{id}/log/{completedCount}");
+    
+    private final String method;
+    private final String uriPattern;
+    
+    Operation(String method, String uriPattern) {
+        this.method = method;
+        this.uriPattern = uriPattern;
+    }
+    
+    String method() {
+        return method;
+    }
+    
+    String uriPattern() {
+        return uriPattern;
+    }
+    
+    String endpoint() {
+        return method + " " + uriPattern;
+    }
+}
@@ -0,0 +1,44 @@
+package com.habittracker.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Samples of one scrape of /actuator/prometheus, keyed by series ("name{labels}")
+ */
+final class PrometheusSnapshot {
+    
+    /** Per-request SQL statements (Hibernate and JdbcTemplate) recorded by the backend, by method and URI pattern */
+    private static final String SQL_STATEMENTS_SUM = "habit_http_sql_statements_sum{";
+    
+    private final Map<String, Double> samples = new HashMap<>();
+    
+    static PrometheusSnapshot parse(String body) {
+        PrometheusSnapshot snapshot = new PrometheusSnapshot();
+        for (String line : body.split("\n")) {
+            int separator = line.lastIndexOf(' ');
+            if (line.isEmpty() || line.startsWith("#") || separator < 0) {
+                continue;
+            }
+            snapshot.samples.put(line.substring(0, separator), Double.parseDouble(line.substring(separator + 1)));
+        }
+        return snapshot;
+    }
+    
+    /**
+     * SQL statements issued by requests of the given operation since the given earlier snapshot
+     */
+    long sqlStatementsSince(PrometheusSnapshot earlier, Operation operation) {
+        return Math.round(sumOf(this, operation) - sumOf(earlier, operation));
+    }
+    
+    private static double sumOf(PrometheusSnapshot snapshot, Operation operation) {
+        String method = "method=\"" + operation.method() + "\"";
+        String uri = "uri=\"" + operation.uriPattern() + "\"";
+        return snapshot.samples.entrySet().stream()
+                .filter(sample -> sample.getKey().startsWith(SQL_STATEMENTS_SUM)
+                        && sample.getKey().contains(method) && sample.getKey().contains(uri))
+                .mapToDouble(Map.Entry::getValue)
+                .sum();
+    }
+}